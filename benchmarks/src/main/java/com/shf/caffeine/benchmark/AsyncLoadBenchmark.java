@@ -0,0 +1,108 @@
+package com.shf.caffeine.benchmark;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * description :
+ * 对比同步LoadingCache与AsyncLoadingCache在加载存在5~50ms延迟时的吞吐量与线程占用。
+ * 每次操作均为未命中：
+ * syncLoad中调用线程阻塞于加载，吞吐量受限于线程数/延迟；
+ * asyncLoad中加载由定时器在延迟后完成future，调用线程只负责发起请求，吞吐量受限于允许的在途请求数/延迟。
+ * 每轮结束时输出JVM峰值线程数，用于观察两种方式的线程占用。
+ *
+ * @author agent
+ * @date 2026/10/17 10:15
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class AsyncLoadBenchmark {
+    static final int MAXIMUM_SIZE = 100;
+    static final int MAX_IN_FLIGHT = 1024;
+    static final String MOCK_VALUE = "mock_value";
+
+    @Param({"5", "50"})
+    long latencyMillis;
+
+    final AtomicLong sequence = new AtomicLong();
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    LoadingCache<Long, String> cache;
+    AsyncLoadingCache<Long, String> asyncCache;
+    ScheduledExecutorService timer;
+    Semaphore inFlight;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timer = Executors.newSingleThreadScheduledExecutor();
+        inFlight = new Semaphore(MAX_IN_FLIGHT);
+        cache = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .recordStats()
+                .build(key -> {
+                    Thread.sleep(latencyMillis);
+                    return MOCK_VALUE;
+                });
+        asyncCache = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .recordStats()
+                .buildAsync((key, executor) -> {
+                    CompletableFuture<String> future = new CompletableFuture<>();
+                    timer.schedule(() -> future.complete(MOCK_VALUE), latencyMillis, TimeUnit.MILLISECONDS);
+                    return future;
+                });
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportThreads() {
+        System.out.println("peak threads: " + threads.getPeakThreadCount());
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        inFlight.acquire(MAX_IN_FLIGHT);
+        timer.shutdown();
+    }
+
+    @Benchmark
+    public String syncLoad() {
+        return cache.get(sequence.incrementAndGet());
+    }
+
+    @Benchmark
+    public CompletableFuture<Integer> asyncLoad() throws InterruptedException {
+        inFlight.acquire();
+        return asyncCache.get(sequence.incrementAndGet())
+                .thenApply(String::length)
+                .whenComplete((length, error) -> inFlight.release());
+    }
+}
@@ -0,0 +1,33 @@
+package com.shf.caffeine.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * description :
+ * 依次以1、4、16、64个线程执行匹配的基准测试，以便观察吞吐量随并发度的变化及竞争出现的拐点。
+ * 参数为可选的基准测试类名正则，默认执行{@link ReadBenchmark}。
+ * <pre>
+ * java -cp target/benchmarks.jar com.shf.caffeine.benchmark.BenchmarkRunner [regex]
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:07
+ */
+public class BenchmarkRunner {
+    private static final int[] THREADS = {1, 4, 16, 64};
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ReadBenchmark.class.getSimpleName();
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .output("jmh-" + threads + "-threads.log")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.shf.caffeine.benchmark;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.shf.caffeine.expiry.Jitter;
+import com.shf.caffeine.expiry.JitteredExpiry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * description :
+ * 后端负载曲线对比：启动时批量加载{@value #KEYS}个key，TTL为5秒(同{@code Sample#evictExpireAfterWriteCache})，
+ * 随后以模拟时钟每{@value #STEP_MILLIS}ms将全部key各读取一次，统计每个时间片内的回源次数。
+ * 无抖动时回源集中在少数时间片形成尖峰，抖动后峰值下降、曲线趋于平坦。
+ * 输出每种策略的峰值、标准差及前若干时间片的回源次数。
+ * <pre>
+ * java -cp target/benchmarks.jar com.shf.caffeine.benchmark.JitterLoadCurve
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:24
+ */
+public class JitterLoadCurve {
+    static final int KEYS = 10_000;
+    static final long STEP_MILLIS = 250;
+    static final int STEPS = 120;
+
+    public static void main(String[] args) {
+        Map<String, Jitter> jitters = new LinkedHashMap<>();
+        jitters.put("none", Jitter.none());
+        jitters.put("uniform(0.2)", Jitter.uniform(0.2));
+        jitters.put("exponential(0.05,0.2)", Jitter.exponential(0.05, 0.2));
+        jitters.put("hashed(0.2)", Jitter.hashed(0.2));
+
+        for (Map.Entry<String, Jitter> entry : jitters.entrySet()) {
+            long[] loads = simulate(entry.getValue());
+            long peak = 0;
+            double mean = 0;
+            for (long load : loads) {
+                peak = Math.max(peak, load);
+                mean += load;
+            }
+            mean /= loads.length;
+            double variance = 0;
+            for (long load : loads) {
+                variance += (load - mean) * (load - mean);
+            }
+            StringBuilder curve = new StringBuilder();
+            for (int i = 0; i < Math.min(48, loads.length); i++) {
+                curve.append(loads[i]).append(' ');
+            }
+            System.out.printf("%-22s peak=%5d stddev=%8.1f curve=%s%n", entry.getKey(), peak,
+                    Math.sqrt(variance / loads.length), curve);
+        }
+    }
+
+    static long[] simulate(Jitter jitter) {
+        AtomicLong nanos = new AtomicLong();
+        AtomicLong backendCalls = new AtomicLong();
+        final LoadingCache<Integer, String> cache = Caffeine.newBuilder()
+                .expireAfter(JitteredExpiry.<Integer, String>afterWrite(5, TimeUnit.SECONDS, jitter))
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .build(key -> {
+                    backendCalls.incrementAndGet();
+                    return "mock_value";
+                });
+
+        for (int key = 0; key < KEYS; key++) {
+            cache.get(key);
+        }
+        long[] loads = new long[STEPS];
+        for (int step = 0; step < STEPS; step++) {
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(STEP_MILLIS));
+            long before = backendCalls.get();
+            for (int key = 0; key < KEYS; key++) {
+                cache.get(key);
+            }
+            loads[step] = backendCalls.get() - before;
+        }
+        return loads;
+    }
+}
@@ -0,0 +1,132 @@
+package com.shf.caffeine.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shf.caffeine.offheap.OffHeapValueCache;
+import com.shf.caffeine.offheap.Serializer;
+import com.shf.caffeine.offheap.SlabAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * 对比值存放于堆内与堆外({@link OffHeapValueCache})时的读写吞吐量与GC耗时。
+ * 预先写满dataMegabytes数据，每次操作随机读一个key，其中writeRatio比例改为覆盖写入，制造持续的老年代更替。
+ * 每轮结束时输出该轮GC次数与累计耗时。
+ * 默认数据量较小以便本地运行，观察大堆效果时可调整参数，例如：
+ * java -jar benchmarks/target/benchmarks.jar OffHeapGcBenchmark -p dataMegabytes=4096
+ * -jvmArgs "-Xmx6g -XX:MaxDirectMemorySize=6g"
+ *
+ * @author agent
+ * @date 2026/10/17 10:35
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-XX:MaxDirectMemorySize=2g"})
+public class OffHeapGcBenchmark {
+    static final int SLAB_SIZE = 1 << 20;
+
+    @Param({"heap", "offHeap"})
+    String mode;
+
+    @Param({"256"})
+    int dataMegabytes;
+
+    @Param({"4096"})
+    int valueBytes;
+
+    @Param({"0.1"})
+    double writeRatio;
+
+    int entries;
+    Cache<Integer, byte[]> heapCache;
+    OffHeapValueCache<Integer, byte[]> offHeapCache;
+
+    long gcCount;
+    long gcMillis;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entries = (int) ((long) dataMegabytes * 1024 * 1024 / valueBytes);
+        if ("heap".equals(mode)) {
+            heapCache = Caffeine.newBuilder().maximumSize(entries).build();
+        } else {
+            // 按块大小预留余量，避免覆盖写入时新块先于旧块释放导致分配失败
+            long chunkBytes = Integer.highestOneBit(valueBytes - 1) << 1;
+            long maxBytes = chunkBytes * entries + 16L * SLAB_SIZE;
+            offHeapCache = new OffHeapValueCache<>(Caffeine.newBuilder().maximumWeight((long) entries * valueBytes),
+                    new SlabAllocator(SLAB_SIZE, maxBytes, 64), Serializer.byteArray());
+        }
+        for (int i = 0; i < entries; i++) {
+            write(i);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetGc() {
+        gcCount = totalGcCount();
+        gcMillis = totalGcMillis();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportGc() {
+        System.out.printf("%n%s gc count: %d, gc time: %d ms%n", mode,
+                totalGcCount() - gcCount, totalGcMillis() - gcMillis);
+    }
+
+    @Benchmark
+    public Object readWrite() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(entries);
+        if (random.nextDouble() < writeRatio) {
+            write(key);
+            return null;
+        }
+        return heapCache != null ? heapCache.getIfPresent(key) : offHeapCache.get(key);
+    }
+
+    private void write(int key) {
+        byte[] value = new byte[valueBytes];
+        value[0] = (byte) key;
+        if (heapCache != null) {
+            heapCache.put(key, value);
+        } else {
+            offHeapCache.put(key, value);
+        }
+    }
+
+    private static long totalGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long totalGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, bean.getCollectionTime());
+        }
+        return millis;
+    }
+}
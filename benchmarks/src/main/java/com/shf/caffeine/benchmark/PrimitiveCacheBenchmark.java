@@ -0,0 +1,62 @@
+package com.shf.caffeine.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shf.caffeine.primitive.LongLongCache;
+import com.shf.caffeine.primitive.PrimitiveCacheBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * 对比{@link LongLongCache}与Cache&lt;Long, Long&gt;的命中读取，键大于Long缓存范围，后者每次读取需装箱。
+ * 配合-prof gc运行可观察每次操作的分配字节数：
+ * java -jar benchmarks/target/benchmarks.jar PrimitiveCacheBenchmark -prof gc
+ *
+ * @author agent
+ * @date 2026/10/17 10:38
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PrimitiveCacheBenchmark {
+    static final int SIZE = 1 << 16;
+    static final long KEY_OFFSET = 1_000_000L;
+
+    LongLongCache primitiveCache;
+    Cache<Long, Long> boxedCache;
+
+    @Setup
+    public void setUp() {
+        primitiveCache = PrimitiveCacheBuilder.newBuilder().maximumSize(SIZE).buildLongLong();
+        boxedCache = Caffeine.newBuilder().maximumSize(SIZE).build();
+        for (long i = 0; i < SIZE; i++) {
+            primitiveCache.put(KEY_OFFSET + i, i);
+            boxedCache.put(KEY_OFFSET + i, i);
+        }
+    }
+
+    @Benchmark
+    public long primitiveGet() {
+        return primitiveCache.getIfPresent(KEY_OFFSET + ThreadLocalRandom.current().nextInt(SIZE), -1L);
+    }
+
+    @Benchmark
+    public Long boxedGet() {
+        return boxedCache.getIfPresent(KEY_OFFSET + ThreadLocalRandom.current().nextInt(SIZE));
+    }
+}
@@ -0,0 +1,111 @@
+package com.shf.caffeine.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * 覆盖{@code com.shf.caffeine.Sample}中的三种读路径：
+ * 1、{@link Cache#getIfPresent}，对应getIfPresentTest；
+ * 2、{@link Cache#get(Object, java.util.function.Function)}，对应getTest；
+ * 3、{@link LoadingCache#get}，对应autoLoadCache。
+ * 缓存形态与Sample保持一致(maximumSize(100) + recordStats())，通过hitRatio控制访问序列中热点key的占比，
+ * 线程数由{@link BenchmarkRunner}按1/4/16/64分别执行。
+ *
+ * @author agent
+ * @date 2026/10/17 10:07
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBenchmark {
+    static final int MAXIMUM_SIZE = 100;
+    /**
+     * 热点key数量需小于maximumSize，保证命中部分常驻缓存
+     */
+    static final int HOT_KEYS = 64;
+    static final int SEQUENCE_SIZE = 1 << 14;
+    static final int MASK = SEQUENCE_SIZE - 1;
+    static final String MOCK_VALUE = "mock_value";
+
+    @Param({"0", "0.5", "0.9", "0.99"})
+    double hitRatio;
+
+    Cache<String, String> cache;
+    LoadingCache<String, String> loadingCache;
+    String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .recordStats()
+                .build();
+        loadingCache = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .recordStats()
+                .build(ReadBenchmark::getValue);
+
+        keys = new String[SEQUENCE_SIZE];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SEQUENCE_SIZE; i++) {
+            // 未命中部分使用不重复的冷key，借助TinyLFU的准入策略使热点key不被冷key挤出
+            keys[i] = random.nextDouble() < hitRatio
+                    ? "mock_key_" + random.nextInt(HOT_KEYS)
+                    : "cold_key_" + i;
+        }
+        for (int i = 0; i < HOT_KEYS; i++) {
+            String key = "mock_key_" + i;
+            cache.put(key, MOCK_VALUE);
+            loadingCache.put(key, MOCK_VALUE);
+        }
+        cache.cleanUp();
+        loadingCache.cleanUp();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int index = ThreadLocalRandom.current().nextInt(SEQUENCE_SIZE);
+    }
+
+    @Benchmark
+    public String getIfPresent(ThreadState state) {
+        return cache.getIfPresent(keys[state.index++ & MASK]);
+    }
+
+    @Benchmark
+    public String getWithMappingFunction(ThreadState state) {
+        return cache.get(keys[state.index++ & MASK], ReadBenchmark::getValue);
+    }
+
+    @Benchmark
+    public String loadingGet(ThreadState state) {
+        return loadingCache.get(keys[state.index++ & MASK]);
+    }
+
+    /**
+     * 等价于Sample#getValue，去掉日志输出以免掩盖缓存本身的开销
+     */
+    static String getValue(String key) {
+        return MOCK_VALUE;
+    }
+}
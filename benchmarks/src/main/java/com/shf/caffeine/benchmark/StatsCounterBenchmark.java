@@ -0,0 +1,84 @@
+package com.shf.caffeine.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shf.caffeine.stats.StripedStatsCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * 对比不同统计方式对读路径的开销：
+ * none为不开启统计，recordStats为Caffeine默认的LongAdder计数，
+ * sampled16/sampled64为{@link StripedStatsCounter}在同样的LongAdder计数之上按1/16、1/64采样命中。
+ * 建议配合{@link BenchmarkRunner}在多线程下执行：
+ * <pre>
+ * java -cp target/benchmarks.jar com.shf.caffeine.benchmark.BenchmarkRunner StatsCounterBenchmark
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:09
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatsCounterBenchmark {
+    static final int KEYS = 1 << 10;
+    static final int MASK = KEYS - 1;
+
+    @Param({"none", "recordStats", "sampled16", "sampled64"})
+    String stats;
+
+    Cache<Integer, Integer> cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(KEYS * 2);
+        switch (stats) {
+            case "none":
+                break;
+            case "recordStats":
+                builder.recordStats();
+                break;
+            case "sampled16":
+                builder.recordStats(StripedStatsCounter.supplier(16));
+                break;
+            case "sampled64":
+                builder.recordStats(StripedStatsCounter.supplier(64));
+                break;
+            default:
+                throw new IllegalArgumentException(stats);
+        }
+        cache = builder.build();
+        for (int i = 0; i < KEYS; i++) {
+            cache.put(i, i);
+        }
+        cache.cleanUp();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int index = ThreadLocalRandom.current().nextInt(KEYS);
+    }
+
+    @Benchmark
+    public Integer getIfPresentHit(ThreadState state) {
+        return cache.getIfPresent(state.index++ & MASK);
+    }
+}
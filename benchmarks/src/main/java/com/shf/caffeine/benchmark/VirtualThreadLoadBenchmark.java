@@ -0,0 +1,99 @@
+package com.shf.caffeine.benchmark;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shf.caffeine.executor.LoaderExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * description :
+ * 阻塞型加载(每次加载sleep 10ms)在不同executor下的吞吐量：
+ * commonPool为Caffeine默认的ForkJoinPool.commonPool()，singleThread对应Sample中的newSingleThreadExecutor()，
+ * fixed64为固定64线程池，virtual为{@link LoaderExecutors#newVirtualThreadPerTaskExecutor()}。
+ * 每次调用并发发起{@value #BATCH}个未命中加载并等待全部完成。
+ * 低于Java 21运行时virtual退化为平台线程的缓存线程池，结果中应注明运行时版本。
+ *
+ * @author agent
+ * @date 2026/10/17 10:16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+    static final int BATCH = 256;
+    static final long LATENCY_MILLIS = 10;
+
+    @Param({"commonPool", "singleThread", "fixed64", "virtual"})
+    String executorType;
+
+    final AtomicLong sequence = new AtomicLong();
+    ExecutorService executor;
+    AsyncLoadingCache<Long, String> cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (executorType) {
+            case "commonPool":
+                executor = ForkJoinPool.commonPool();
+                break;
+            case "singleThread":
+                executor = Executors.newSingleThreadExecutor();
+                break;
+            case "fixed64":
+                executor = Executors.newFixedThreadPool(64);
+                break;
+            case "virtual":
+                executor = LoaderExecutors.newVirtualThreadPerTaskExecutor();
+                break;
+            default:
+                throw new IllegalArgumentException(executorType);
+        }
+        cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .executor(executor)
+                .buildAsync(key -> {
+                    Thread.sleep(LATENCY_MILLIS);
+                    return "mock_value";
+                });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executor != ForkJoinPool.commonPool()) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void blockingLoads() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            futures[i] = cache.get(sequence.incrementAndGet());
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
@@ -0,0 +1,159 @@
+package com.shf.caffeine;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * {@link Sample}中同步缓存的异步版本，通过buildAsync构建，加载函数返回{@link CompletableFuture}。
+ * 未命中时调用线程不再阻塞于getValue，而是拿到future后继续组合后续逻辑。
+ *
+ * @author agent
+ * @date 2026/10/17 10:15
+ */
+@Slf4j
+public class AsyncSample {
+    private static final String MOCK_KEY = "mock_key";
+    private static final String MOCK_VALUE = "mock_value";
+
+    /**
+     * 对应{@link Sample#getIfPresentTest()}，getIfPresent返回future，未缓存时返回null
+     */
+    @Test
+    public void getIfPresentTest() {
+        final AsyncCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats()
+                .buildAsync();
+
+        CompletableFuture<String> future = cache.getIfPresent(MOCK_KEY);
+        assert cache.synchronous().stats().missCount() == 1;
+        assert future == null;
+
+        cache.put(MOCK_KEY, CompletableFuture.completedFuture(MOCK_VALUE));
+
+        future = cache.getIfPresent(MOCK_KEY);
+        // 与同步缓存不同，put的future在完成时同样计入load统计
+        assert cache.synchronous().stats().loadCount() == 1;
+        assert cache.synchronous().stats().hitCount() == 1;
+        assert MOCK_VALUE.equals(future.join());
+    }
+
+    /**
+     * 对应{@link Sample#getTest()}，mappingFunction返回future，加载中的future同样会被后续调用共享，
+     * 故并发的多次get仅触发一次加载。
+     * 加载统计在future完成后的回调中记录，示例中通过同步executor使断言结果确定。
+     */
+    @Test
+    public void getTest() {
+        final AsyncCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync();
+
+        CompletableFuture<String> first = cache.get(MOCK_KEY, this::getValueAsync);
+        CompletableFuture<String> second = cache.get(MOCK_KEY, this::getValueAsync);
+        assert first == second;
+        assert MOCK_VALUE.equals(first.join());
+        assert cache.synchronous().stats().loadCount() == 1;
+    }
+
+    /**
+     * 对应{@link Sample#autoLoadCache()}，加载函数收口至buildAsync中，调用方通过组合future处理结果而非阻塞等待
+     */
+    @Test
+    public void autoLoadCache() {
+        final AsyncLoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync(this::getValueAsync);
+
+        CompletableFuture<Integer> length = cache.get(MOCK_KEY).thenApply(String::length);
+        assert length.join() == MOCK_VALUE.length();
+        assert cache.synchronous().stats().loadCount() == 1;
+
+        String value = cache.get(MOCK_KEY).join();
+        assert cache.synchronous().stats().loadCount() == 1;
+        assert MOCK_VALUE.equals(value);
+    }
+
+    /**
+     * 对应{@link Sample#autoLoadCache2()}，future以null完成时视为加载失败，不会被缓存
+     */
+    @Test
+    public void autoLoadCache2() {
+        final AsyncLoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync((key, executor) -> CompletableFuture.supplyAsync(() -> getValueNull(key), executor));
+
+        String value = cache.get(MOCK_KEY).join();
+        assert value == null;
+        assert cache.synchronous().stats().loadFailureCount() == 1;
+
+        value = cache.get(MOCK_KEY).join();
+        assert value == null;
+        assert cache.synchronous().stats().loadFailureCount() == 2;
+    }
+
+    /**
+     * 加载失败以异常完成future，同样不会被缓存，调用方通过exceptionally提供降级值
+     */
+    @Test
+    public void exceptionallyTest() {
+        final AsyncLoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats()
+                .buildAsync((key, executor) -> {
+                    CompletableFuture<String> future = new CompletableFuture<>();
+                    future.completeExceptionally(new IllegalStateException("backend down"));
+                    return future;
+                });
+
+        String value = cache.get(MOCK_KEY).exceptionally(e -> MOCK_VALUE).join();
+        assert MOCK_VALUE.equals(value);
+        assert cache.synchronous().stats().loadFailureCount() == 1;
+        assert cache.getIfPresent(MOCK_KEY) == null;
+    }
+
+    /**
+     * 异步刷新，刷新期间仍返回旧值
+     */
+    @Test
+    public void refreshAfterWriteTest() throws InterruptedException {
+        final AsyncLoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .refreshAfterWrite(1, TimeUnit.SECONDS)
+                .recordStats()
+                .buildAsync(this::getValueAsync);
+
+        cache.put(MOCK_KEY, CompletableFuture.completedFuture("old_value"));
+        Thread.sleep(1100);
+
+        assert "old_value".equals(cache.get(MOCK_KEY).join());
+        Thread.sleep(100);
+        assert MOCK_VALUE.equals(cache.get(MOCK_KEY).join());
+    }
+
+    private CompletableFuture<String> getValueAsync(String key, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            log.info("create value [{}] for key [{}]", MOCK_VALUE, key);
+            return MOCK_VALUE;
+        }, executor);
+    }
+
+    private String getValueNull(String key) {
+        log.info("create value [{}] for key [{}]", null, key);
+        return null;
+    }
+}
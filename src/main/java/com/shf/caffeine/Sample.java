@@ -4,6 +4,7 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Expiry;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.shf.caffeine.scheduler.TimingWheelScheduler;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 
@@ -303,6 +304,27 @@ public class Sample {
         assert value == null;
     }
 
+    /**
+     * 基于时间进行驱逐，通过scheduler在到期附近主动清理，无需手动cleanUp，空闲的缓存同样会及时通知移除
+     *
+     * @throws InterruptedException e
+     */
+    @Test
+    public void evictExpireAfterWriteWithSchedulerCache() throws InterruptedException {
+        final Cache<String, String> cache = Caffeine.newBuilder()
+                .expireAfterWrite(5, TimeUnit.SECONDS)
+                // 所有缓存共享同一个时间轮线程
+                .scheduler(TimingWheelScheduler.shared())
+                .removalListener((key, value, cause) ->
+                        System.out.println(String.format("Key %s value %s was removed (%s)", key, value, cause)))
+                .build();
+        cache.put(MOCK_KEY, MOCK_VALUE);
+
+        // 期间不访问缓存，到期后仍会被移除并通知
+        Thread.sleep(7 * 1000);
+        assert cache.estimatedSize() == 0;
+    }
+
     /**
      * 写入后自动刷新，其刷新时间并非到期就刷新，而是在到期且被查询后执行，故即使到期仍然拿到的是旧值，再下一次待刷新执行完全方可获取新值
      *
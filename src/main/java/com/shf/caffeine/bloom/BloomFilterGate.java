@@ -0,0 +1,131 @@
+package com.shf.caffeine.bloom;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * description :
+ * 位于{@link LoadingCache}之前的布隆过滤器闸门：过滤器判定一定不存在的key直接返回null，不调用加载函数，
+ * 用于拦截大量从未合法存在过的ID查询，与{@code Sample#getTest2}中每次穿透至后端形成对比。
+ * 1、启动时通过{@link #populate(Iterable)}以全量key快照填充过滤器；
+ * 2、经由本类的put会同步写入过滤器；绕过本类直接写入后端的新key需调用{@link #register(Object)}，否则将被误拦截；
+ * 3、过滤器只增不删，已删除的key仍会放行至缓存，由缓存或负缓存处理。
+ * <pre>
+ * BloomFilterGate&lt;String, String&gt; gate = new BloomFilterGate&lt;&gt;(
+ *         Caffeine.newBuilder().maximumSize(100).recordStats().build(this::getValue),
+ *         new ScalableBloomFilter&lt;&gt;(1_000_000, 0.01));
+ * gate.populate(allKeys);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:18
+ */
+public class BloomFilterGate<K, V> {
+    private final LoadingCache<K, V> delegate;
+    private final ScalableBloomFilter<K> filter;
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder passedCount = new LongAdder();
+
+    public BloomFilterGate(LoadingCache<K, V> delegate, ScalableBloomFilter<K> filter) {
+        this.delegate = delegate;
+        this.filter = filter;
+    }
+
+    public void populate(Iterable<? extends K> keys) {
+        filter.putAll(keys);
+    }
+
+    public void register(K key) {
+        filter.put(key);
+    }
+
+    /**
+     * @return 缓存值，过滤器判定不存在时直接返回null
+     */
+    public V get(K key) {
+        if (!filter.mightContain(key)) {
+            rejectedCount.increment();
+            return null;
+        }
+        passedCount.increment();
+        return delegate.get(key);
+    }
+
+    public V getIfPresent(K key) {
+        return delegate.getIfPresent(key);
+    }
+
+    public void put(K key, V value) {
+        filter.put(key);
+        delegate.put(key, value);
+    }
+
+    public void invalidate(K key) {
+        delegate.invalidate(key);
+    }
+
+    public LoadingCache<K, V> delegate() {
+        return delegate;
+    }
+
+    public CacheStats stats() {
+        return delegate.stats();
+    }
+
+    public GateStats gateStats() {
+        return new GateStats(rejectedCount.sum(), passedCount.sum(), filter.memoryBytes(),
+                filter.approximateElementCount(), filter.expectedFalsePositiveProbability());
+    }
+
+    /**
+     * description :
+     * 闸门统计，与{@link #stats()}一同输出
+     */
+    public static final class GateStats {
+        private final long rejectedCount;
+        private final long passedCount;
+        private final long memoryBytes;
+        private final long elementCount;
+        private final double expectedFalsePositiveProbability;
+
+        GateStats(long rejectedCount, long passedCount, long memoryBytes, long elementCount,
+                  double expectedFalsePositiveProbability) {
+            this.rejectedCount = rejectedCount;
+            this.passedCount = passedCount;
+            this.memoryBytes = memoryBytes;
+            this.elementCount = elementCount;
+            this.expectedFalsePositiveProbability = expectedFalsePositiveProbability;
+        }
+
+        /**
+         * @return 被直接拦截的查询数
+         */
+        public long rejectedCount() {
+            return rejectedCount;
+        }
+
+        public long passedCount() {
+            return passedCount;
+        }
+
+        public long memoryBytes() {
+            return memoryBytes;
+        }
+
+        public long elementCount() {
+            return elementCount;
+        }
+
+        public double expectedFalsePositiveProbability() {
+            return expectedFalsePositiveProbability;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("GateStats{rejected=%d, passed=%d, memoryBytes=%d, elements=%d, fpp=%.4f}",
+                    rejectedCount, passedCount, memoryBytes, elementCount, expectedFalsePositiveProbability);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.shf.caffeine.bloom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * description :
+ * 可扩容的布隆过滤器：由若干子过滤器组成，当前子过滤器插入数超过其容量后追加一个容量翻倍、误判率减半的新子过滤器，
+ * 使总体误判率收敛于初始误判率的两倍以内。
+ * 1、读操作无锁，仅读取volatile的子过滤器数组及{@link AtomicLongArray}；
+ * 2、写操作通过CAS置位，仅扩容时加锁；
+ * 3、只支持添加，不支持删除。
+ *
+ * @author agent
+ * @date 2026/10/17 10:18
+ */
+public class ScalableBloomFilter<T> {
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double falsePositiveProbability;
+    private volatile Segment[] segments;
+
+    /**
+     * @param expectedInsertions       初始子过滤器的容量
+     * @param falsePositiveProbability 初始子过滤器的误判率
+     */
+    public ScalableBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("falsePositiveProbability must be in (0, 1)");
+        }
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.segments = new Segment[]{new Segment(expectedInsertions, falsePositiveProbability * TIGHTENING_RATIO)};
+    }
+
+    /**
+     * @return false表示一定不存在，true表示可能存在
+     */
+    public boolean mightContain(T element) {
+        long hash = hash(element);
+        for (Segment segment : segments) {
+            if (segment.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(T element) {
+        long hash = hash(element);
+        Segment[] current = segments;
+        Segment last = current[current.length - 1];
+        if (last.put(hash) && last.count.incrementAndGet() > last.capacity) {
+            grow(current);
+        }
+    }
+
+    public void putAll(Iterable<? extends T> elements) {
+        for (T element : elements) {
+            put(element);
+        }
+    }
+
+    /**
+     * @return 位数组占用的字节数
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += (long) segment.bits.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return 已插入的元素数(近似值，并发重复插入可能重复计数)
+     */
+    public long approximateElementCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += Math.min(segment.count.get(), segment.capacity);
+        }
+        return count;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * @return 各子过滤器误判率上限之和，即总体误判率的上界
+     */
+    public double expectedFalsePositiveProbability() {
+        double fpp = 0;
+        for (Segment segment : segments) {
+            fpp += segment.fpp;
+        }
+        return Math.min(fpp, 2 * falsePositiveProbability);
+    }
+
+    private synchronized void grow(Segment[] expected) {
+        if (segments != expected) {
+            return;
+        }
+        Segment last = expected[expected.length - 1];
+        Segment[] next = new Segment[expected.length + 1];
+        System.arraycopy(expected, 0, next, 0, expected.length);
+        next[expected.length] = new Segment(last.capacity * 2, last.fpp * TIGHTENING_RATIO);
+        segments = next;
+    }
+
+    /**
+     * 字符串按字符计算64位哈希，避免{@link String#hashCode()}仅32位带来的额外碰撞，其余类型对hashCode再做混淆
+     */
+    static long hash(Object element) {
+        long h;
+        if (element instanceof CharSequence) {
+            CharSequence chars = (CharSequence) element;
+            h = 0xcbf29ce484222325L;
+            for (int i = 0; i < chars.length(); i++) {
+                h ^= chars.charAt(i);
+                h *= 0x100000001b3L;
+            }
+        } else {
+            h = element.hashCode();
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    static final class Segment {
+        final AtomicLongArray bits;
+        final long bitSize;
+        final int hashes;
+        final long capacity;
+        final double fpp;
+        final AtomicLong count = new AtomicLong();
+
+        Segment(long capacity, double fpp) {
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) >>> 6));
+            this.bits = new AtomicLongArray(words);
+            this.bitSize = (long) words << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+            this.capacity = capacity;
+            this.fpp = fpp;
+        }
+
+        boolean mightContain(long hash) {
+            long h2 = Long.rotateLeft(hash, 32);
+            for (int i = 1; i <= hashes; i++) {
+                long index = index(hash + i * h2);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return 是否有位发生变化，即元素此前不存在
+         */
+        boolean put(long hash) {
+            long h2 = Long.rotateLeft(hash, 32);
+            boolean changed = false;
+            for (int i = 1; i <= hashes; i++) {
+                long index = index(hash + i * h2);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                while (((current = bits.get(word)) & mask) == 0) {
+                    if (bits.compareAndSet(word, current, current | mask)) {
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * 双重哈希在64位上计算，超过2^31位的分段也能映射到全部位
+         */
+        private long index(long combined) {
+            return Math.floorMod(combined, bitSize);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.shf.caffeine.compress;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.shf.caffeine.weigher.Weighers;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * description :
+ * 对String值透明压缩的缓存，接口与{@code Cache<K, String>}一致：
+ * 1、写入时经{@link StringCodec}编码，较大的值以压缩形式保存；
+ * 2、读取压缩值时先查热点集合，未命中再解压，解压结果放入热点集合；
+ * 热点集合是以压缩对象为弱引用键的小容量Caffeine缓存，由其频率准入保留读取最多的值，
+ * 值被覆盖或淘汰后旧压缩对象不再可达，热点集合中的对应条目随之失效，不会读到旧值；
+ * 3、{@link #stats()}统计累计写入的压缩率与每次命中平均的解压耗时。
+ * 按内存限制容量时配合{@link #storedSizeWeigher()}使用，权重为压缩后的实际占用。
+ * <pre>
+ * CompressedCache&lt;String&gt; cache = new CompressedCache&lt;&gt;(
+ *         Caffeine.newBuilder().maximumWeight(256L * 1024 * 1024).weigher(CompressedCache.storedSizeWeigher()),
+ *         new StringCodec(512, dictionary, Deflater.DEFAULT_COMPRESSION), 1_000);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:43
+ */
+public class CompressedCache<K> {
+    private final Cache<K, Object> cache;
+    private final Cache<Object, String> hot;
+    private final StringCodec codec;
+
+    private final LongAdder compressedWriteCount = new LongAdder();
+    private final LongAdder plainWriteCount = new LongAdder();
+    private final LongAdder originalBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder compressedHitCount = new LongAdder();
+    private final LongAdder hotHitCount = new LongAdder();
+    private final LongAdder decompressionNanos = new LongAdder();
+
+    /**
+     * @param hotSize 热点集合容量，0表示每次读取都解压
+     */
+    public CompressedCache(Caffeine<Object, Object> builder, StringCodec codec, int hotSize) {
+        this.cache = builder.build();
+        this.hot = Caffeine.newBuilder().weakKeys().maximumSize(hotSize).build();
+        this.codec = codec;
+    }
+
+    /**
+     * @return 按{@link StringCodec#storedSize(Object)}计算的权重，含条目开销
+     */
+    public static <K> Weigher<K, Object> storedSizeWeigher() {
+        return (key, stored) -> (int) Math.min(Integer.MAX_VALUE,
+                Weighers.ENTRY_OVERHEAD + StringCodec.storedSize(stored));
+    }
+
+    public String getIfPresent(K key) {
+        Object stored = cache.getIfPresent(key);
+        return stored == null ? null : decode(stored);
+    }
+
+    public String get(K key, Function<? super K, String> mappingFunction) {
+        Object stored = cache.get(key, k -> {
+            String value = mappingFunction.apply(k);
+            return value == null ? null : encode(value);
+        });
+        return stored == null ? null : decode(stored);
+    }
+
+    public void put(K key, String value) {
+        cache.put(key, encode(value));
+    }
+
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public Cache<K, ?> delegate() {
+        return cache;
+    }
+
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    public CompressionStats stats() {
+        return new CompressionStats(compressedWriteCount.sum(), plainWriteCount.sum(), originalBytes.sum(),
+                compressedBytes.sum(), compressedHitCount.sum(), hotHitCount.sum(), decompressionNanos.sum());
+    }
+
+    private Object encode(String value) {
+        Object stored = codec.encode(value);
+        if (StringCodec.isCompressed(stored)) {
+            CompressedString compressed = (CompressedString) stored;
+            compressedWriteCount.increment();
+            originalBytes.add(compressed.originalBytes);
+            compressedBytes.add(compressed.data.length);
+        } else {
+            plainWriteCount.increment();
+        }
+        return stored;
+    }
+
+    private String decode(Object stored) {
+        if (!StringCodec.isCompressed(stored)) {
+            return (String) stored;
+        }
+        compressedHitCount.increment();
+        String value = hot.getIfPresent(stored);
+        if (value != null) {
+            hotHitCount.increment();
+            return value;
+        }
+        long start = System.nanoTime();
+        value = codec.decode(stored);
+        decompressionNanos.add(System.nanoTime() - start);
+        hot.put(stored, value);
+        return value;
+    }
+
+    public static final class CompressionStats {
+        private final long compressedWriteCount;
+        private final long plainWriteCount;
+        private final long originalBytes;
+        private final long compressedBytes;
+        private final long compressedHitCount;
+        private final long hotHitCount;
+        private final long decompressionNanos;
+
+        CompressionStats(long compressedWriteCount, long plainWriteCount, long originalBytes, long compressedBytes,
+                         long compressedHitCount, long hotHitCount, long decompressionNanos) {
+            this.compressedWriteCount = compressedWriteCount;
+            this.plainWriteCount = plainWriteCount;
+            this.originalBytes = originalBytes;
+            this.compressedBytes = compressedBytes;
+            this.compressedHitCount = compressedHitCount;
+            this.hotHitCount = hotHitCount;
+            this.decompressionNanos = decompressionNanos;
+        }
+
+        public long compressedWriteCount() {
+            return compressedWriteCount;
+        }
+
+        public long plainWriteCount() {
+            return plainWriteCount;
+        }
+
+        public long originalBytes() {
+            return originalBytes;
+        }
+
+        public long compressedBytes() {
+            return compressedBytes;
+        }
+
+        public long compressedHitCount() {
+            return compressedHitCount;
+        }
+
+        public long hotHitCount() {
+            return hotHitCount;
+        }
+
+        public long decompressionNanos() {
+            return decompressionNanos;
+        }
+
+        /**
+         * @return 压缩写入的原始字节数 / 压缩后字节数
+         */
+        public double compressionRatio() {
+            return compressedBytes == 0 ? 1.0 : (double) originalBytes / compressedBytes;
+        }
+
+        /**
+         * @return 命中压缩值时平均每次的解压耗时，热点集合命中按0计入
+         */
+        public double decompressionNanosPerHit() {
+            return compressedHitCount == 0 ? 0.0 : (double) decompressionNanos / compressedHitCount;
+        }
+
+        /**
+         * @return 热点集合命中数 / 压缩值命中数
+         */
+        public double hotHitRate() {
+            return compressedHitCount == 0 ? 0.0 : (double) hotHitCount / compressedHitCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CompressionStats{compressedWrites=%d, plainWrites=%d, ratio=%.2f, "
+                            + "compressedHits=%d, hotHitRate=%.4f, decompressionNanosPerHit=%.1f}",
+                    compressedWriteCount, plainWriteCount, compressionRatio(), compressedHitCount, hotHitRate(),
+                    decompressionNanosPerHit());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.shf.caffeine.compress;
+
+/**
+ * description :
+ * 压缩后的字符串，缓存中以该对象代替原始String保存
+ *
+ * @author agent
+ * @date 2026/10/17 10:43
+ */
+final class CompressedString {
+    final byte[] data;
+    final int originalBytes;
+
+    CompressedString(byte[] data, int originalBytes) {
+        this.data = data;
+        this.originalBytes = originalBytes;
+    }
+}
@@ -0,0 +1,107 @@
+package com.shf.caffeine.compress;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * description :
+ * 从样本值中训练Deflate预置字典：
+ * 1、统计定长片段在多少个样本中出现，同一样本内重复出现只计一次，出现于单个样本的片段对跨值压缩没有帮助，予以忽略；
+ * 2、按出现的样本数从高到低选取片段，已被字典包含的片段跳过，直到达到字典大小；
+ * 3、Deflate引用距离越近编码越短，故出现最频繁的片段放在字典末尾。
+ * 样本应覆盖线上值的典型结构，几百个样本通常即可。
+ *
+ * @author agent
+ * @date 2026/10/17 10:43
+ */
+public final class DictionaryTrainer {
+    /**
+     * Deflate窗口大小，超出部分无法被引用
+     */
+    public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int MAX_SAMPLE_CHARS = 64 * 1024;
+    private static final int MAX_DISTINCT_GRAMS = 1 << 20;
+
+    private final int gramLength;
+    private final Map<String, Integer> documentFrequency = new HashMap<>();
+    private int sampleCount;
+
+    public DictionaryTrainer() {
+        this(8);
+    }
+
+    public DictionaryTrainer(int gramLength) {
+        if (gramLength < 3) {
+            throw new IllegalArgumentException("gramLength must be at least 3");
+        }
+        this.gramLength = gramLength;
+    }
+
+    public synchronized void add(String sample) {
+        int end = Math.min(sample.length(), MAX_SAMPLE_CHARS) - gramLength;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i <= end; i++) {
+            grams.add(sample.substring(i, i + gramLength));
+        }
+        for (String gram : grams) {
+            documentFrequency.merge(gram, 1, Integer::sum);
+        }
+        sampleCount++;
+        if (documentFrequency.size() > MAX_DISTINCT_GRAMS) {
+            documentFrequency.values().removeIf(count -> count == 1);
+        }
+    }
+
+    public synchronized int sampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * @param maxBytes 字典字节数上限，不超过{@link #MAX_DICTIONARY_SIZE}
+     */
+    public synchronized byte[] train(int maxBytes) {
+        int limit = Math.min(maxBytes, MAX_DICTIONARY_SIZE);
+        List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : documentFrequency.entrySet()) {
+            if (entry.getValue() > 1) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+
+        List<String> selected = new ArrayList<>();
+        StringBuilder contents = new StringBuilder();
+        // 已选内容中的全部定长窗口，片段等长，故包含判断即为集合查找
+        Set<String> windows = new HashSet<>();
+        int size = 0;
+        for (Map.Entry<String, Integer> candidate : candidates) {
+            String gram = candidate.getKey();
+            if (windows.contains(gram)) {
+                continue;
+            }
+            int gramBytes = gram.getBytes(StandardCharsets.UTF_8).length;
+            if (size + gramBytes > limit) {
+                break;
+            }
+            selected.add(gram);
+            contents.append(gram);
+            size += gramBytes;
+            for (int start = Math.max(0, contents.length() - 2 * gramLength + 1);
+                 start <= contents.length() - gramLength; start++) {
+                windows.add(contents.substring(start, start + gramLength));
+            }
+        }
+
+        StringBuilder dictionary = new StringBuilder(contents.length());
+        for (int i = selected.size() - 1; i >= 0; i--) {
+            dictionary.append(selected.get(i));
+        }
+        return dictionary.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,140 @@
+package com.shf.caffeine.compress;
+
+import com.shf.caffeine.weigher.ObjectGraphSizer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * description :
+ * 字符串值编解码：UTF-8字节数达到threshold的值以Deflate压缩保存，其余值与压缩后不能变小的值保持原样。
+ * 可选的预置字典(见{@link DictionaryTrainer})在所有值之间共享，使短文本也能引用公共片段，显著提升JSON等重复结构的压缩率。
+ * Deflater与Inflater放入有界池中复用，避免每次编解码都申请本地内存；池满时归还的实例立即end()释放本地内存，
+ * 不随线程数增长，适用于虚拟线程等大量短生命周期线程的场景。
+ *
+ * @author agent
+ * @date 2026/10/17 10:43
+ */
+public final class StringCodec {
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+    private final int threshold;
+    private final int level;
+    private final byte[] dictionary;
+    private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    public StringCodec(int threshold) {
+        this(threshold, null, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param threshold  开始压缩的UTF-8字节数
+     * @param dictionary 预置字典，可为null，解码时须使用同一字典
+     * @param level      Deflate压缩级别
+     */
+    public StringCodec(int threshold, byte[] dictionary, int level) {
+        if (dictionary != null && dictionary.length > DictionaryTrainer.MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("dictionary cannot exceed " + DictionaryTrainer.MAX_DICTIONARY_SIZE);
+        }
+        this.threshold = threshold;
+        this.level = level;
+        this.dictionary = dictionary == null ? null : dictionary.clone();
+    }
+
+    /**
+     * @return 原String或压缩后的对象
+     */
+    public Object encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < threshold) {
+            return value;
+        }
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level);
+        }
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(bytes);
+            deflater.finish();
+            // 输出缓冲区与原文等长，写满仍未结束说明压缩无收益
+            byte[] buffer = new byte[bytes.length];
+            int length = 0;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (!deflater.finished() || length >= bytes.length) {
+                return value;
+            }
+            return new CompressedString(Arrays.copyOf(buffer, length), bytes.length);
+        } finally {
+            deflater.reset();
+            if (!deflaters.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    public String decode(Object stored) {
+        if (!(stored instanceof CompressedString)) {
+            return (String) stored;
+        }
+        CompressedString compressed = (CompressedString) stored;
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        byte[] bytes = new byte[compressed.originalBytes];
+        int length = 0;
+        try {
+            inflater.setInput(compressed.data);
+            while (length < bytes.length) {
+                int inflated = inflater.inflate(bytes, length, bytes.length - length);
+                if (inflated == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (dictionary == null) {
+                            throw new IllegalStateException("value was compressed with a dictionary");
+                        }
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.finished() || inflater.needsInput()) {
+                        break;
+                    }
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("corrupted compressed value", e);
+        } finally {
+            inflater.reset();
+            if (!inflaters.offer(inflater)) {
+                inflater.end();
+            }
+        }
+        if (length != bytes.length) {
+            throw new IllegalStateException("expected " + bytes.length + " bytes but inflated " + length);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static boolean isCompressed(Object stored) {
+        return stored instanceof CompressedString;
+    }
+
+    /**
+     * @return 缓存中保存的对象占用的堆内存估算值
+     */
+    public static long storedSize(Object stored) {
+        if (stored instanceof CompressedString) {
+            return 24 + ((16L + ((CompressedString) stored).data.length + 7) & ~7L);
+        }
+        return ObjectGraphSizer.stringSize((String) stored);
+    }
+}
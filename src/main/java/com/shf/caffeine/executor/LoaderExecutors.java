@@ -0,0 +1,77 @@
+package com.shf.caffeine.executor;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * description :
+ * 面向I/O型加载的线程池：运行于Java 21及以上时使用虚拟线程(每个任务一个虚拟线程)，
+ * 否则退化为按需创建守护线程的缓存线程池，以兼容pom.xml中的Java 8编译目标。
+ * 通过{@link Caffeine#executor}接入后，refresh、removalListener的通知以及buildAsync的加载均在该线程池执行；
+ * 同步LoadingCache未命中时的加载仍在调用线程执行，如需同样释放调用线程请配合buildAsync使用。
+ * <pre>
+ * LoadingCache&lt;String, String&gt; cache = Caffeine.newBuilder()
+ *         .refreshAfterWrite(5, TimeUnit.SECONDS)
+ *         .executor(LoaderExecutors.newVirtualThreadPerTaskExecutor())
+ *         .build(this::getValue);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:16
+ */
+@Slf4j
+public final class LoaderExecutors {
+    private static final Method VIRTUAL_THREAD_FACTORY = lookupVirtualThreadFactory();
+
+    private LoaderExecutors() {
+    }
+
+    /**
+     * @return 当前运行时是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    /**
+     * @return Java 21及以上返回虚拟线程执行器，否则返回线程名以"caffeine-loader-"为前缀的缓存线程池
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (VIRTUAL_THREAD_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("create virtual thread executor failed, fallback to platform threads", e);
+            }
+        }
+        return newPlatformThreadPerTaskExecutor();
+    }
+
+    /**
+     * 虚拟线程不可用时的替代实现：不限线程数、空闲60秒回收，与虚拟线程执行器一样不会因线程不足而排队
+     */
+    public static ExecutorService newPlatformThreadPerTaskExecutor() {
+        AtomicInteger sequence = new AtomicInteger();
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "caffeine-loader-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static Method lookupVirtualThreadFactory() {
+        try {
+            return java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
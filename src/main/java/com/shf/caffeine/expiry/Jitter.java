@@ -0,0 +1,76 @@
+package com.shf.caffeine.expiry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * description :
+ * 过期与刷新时长的抖动策略，将同一时刻批量写入的条目的截止时间打散，避免同时过期、同时回源。
+ * {@link #apply}返回的时长位于[duration * (1 - spread), duration]，只缩短不延长，保证不超过配置的TTL。
+ *
+ * @author agent
+ * @date 2026/10/17 10:24
+ */
+@FunctionalInterface
+public interface Jitter {
+
+    /**
+     * @param key      缓存key
+     * @param duration 原始时长，单位纳秒
+     * @return 抖动后的时长，单位纳秒
+     */
+    long apply(Object key, long duration);
+
+    /**
+     * @return 抖动削减的时长，即duration - apply(key, duration)
+     */
+    default long offset(Object key, long duration) {
+        return duration - apply(key, duration);
+    }
+
+    static Jitter none() {
+        return (key, duration) -> duration;
+    }
+
+    /**
+     * 均匀分布：在[0, spread]内随机削减
+     */
+    static Jitter uniform(double spread) {
+        checkSpread(spread);
+        return (key, duration) -> duration - (long) (duration * spread * ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * 指数分布：削减比例服从均值为mean的指数分布并截断于spread，多数条目接近原始时长，少数明显提前
+     */
+    static Jitter exponential(double mean, double spread) {
+        checkSpread(spread);
+        if (mean <= 0) {
+            throw new IllegalArgumentException("mean must be positive");
+        }
+        return (key, duration) -> {
+            double fraction = -mean * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+            return duration - (long) (duration * Math.min(fraction, spread));
+        };
+    }
+
+    /**
+     * 按key哈希确定的削减比例，同一key每次得到相同结果，便于排查与复现
+     */
+    static Jitter hashed(double spread) {
+        checkSpread(spread);
+        return (key, duration) -> {
+            long h = key.hashCode() * 0x9e3779b97f4a7c15L;
+            h ^= h >>> 32;
+            h *= 0xd6e8feb86659fd93L;
+            h ^= h >>> 32;
+            double fraction = (h >>> 11) * 0x1.0p-53;
+            return duration - (long) (duration * spread * fraction);
+        };
+    }
+
+    static void checkSpread(double spread) {
+        if (spread < 0 || spread > 1) {
+            throw new IllegalArgumentException("spread must be in [0, 1]");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.shf.caffeine.expiry;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * 带抖动的写后过期，用于替代{@code Sample#evictExpireAfterWriteCache}中的expireAfterWrite：
+ * 创建与更新时按{@link Jitter}计算本次存活时长，读取不改变剩余时长。
+ * <pre>
+ * Caffeine.newBuilder()
+ *         .expireAfter(JitteredExpiry.afterWrite(5, TimeUnit.SECONDS, Jitter.uniform(0.2)))
+ *         .build();
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:24
+ */
+public class JitteredExpiry<K, V> implements Expiry<K, V> {
+    private final long durationNanos;
+    private final Jitter jitter;
+
+    public JitteredExpiry(long duration, TimeUnit unit, Jitter jitter) {
+        this.durationNanos = unit.toNanos(duration);
+        this.jitter = jitter;
+    }
+
+    public static <K, V> JitteredExpiry<K, V> afterWrite(long duration, TimeUnit unit, Jitter jitter) {
+        return new JitteredExpiry<>(duration, unit, jitter);
+    }
+
+    @Override
+    public long expireAfterCreate(K key, V value, long currentTime) {
+        return jitter.apply(key, durationNanos);
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+        return jitter.apply(key, durationNanos);
+    }
+
+    @Override
+    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
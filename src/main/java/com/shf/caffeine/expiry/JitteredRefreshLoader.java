@@ -0,0 +1,95 @@
+package com.shf.caffeine.expiry;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * 带抖动的刷新：Caffeine 2.x的refreshAfterWrite只支持固定时长，无法按条目设置刷新时间。
+ * 本加载器在refreshAfterWrite触发reload后，按{@link Jitter#offset}将真正的回源推迟[0, spread * window]，
+ * 推迟期间该条目处于刷新中状态，读取继续返回旧值且不会重复触发刷新。
+ * 实际回源时间因此分布在[refreshAfterWrite, refreshAfterWrite + spread * window]内。
+ * <pre>
+ * LoadingCache&lt;String, String&gt; cache = Caffeine.newBuilder()
+ *         .refreshAfterWrite(5, TimeUnit.SECONDS)
+ *         .build(new JitteredRefreshLoader&lt;&gt;(this::getValue, 5, TimeUnit.SECONDS, Jitter.hashed(0.2)));
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:24
+ */
+public class JitteredRefreshLoader<K, V> implements CacheLoader<K, V> {
+    private static final ScheduledExecutorService TIMER = newTimer();
+
+    private final CacheLoader<K, V> delegate;
+    private final long windowNanos;
+    private final Jitter jitter;
+
+    /**
+     * @param delegate 原加载函数
+     * @param window   抖动基准时长，通常取refreshAfterWrite的时长
+     * @param unit     时间单位
+     * @param jitter   抖动策略
+     */
+    public JitteredRefreshLoader(CacheLoader<K, V> delegate, long window, TimeUnit unit, Jitter jitter) {
+        this.delegate = delegate;
+        this.windowNanos = unit.toNanos(window);
+        this.jitter = jitter;
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+        return delegate.load(key);
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+        return delegate.loadAll(keys);
+    }
+
+    @Override
+    public V reload(K key, V oldValue) throws Exception {
+        return delegate.reload(key, oldValue);
+    }
+
+    @Override
+    public CompletableFuture<V> asyncReload(K key, V oldValue, Executor executor) {
+        long delay = jitter.offset(key, windowNanos);
+        if (delay <= 0) {
+            return delegate.asyncReload(key, oldValue, executor);
+        }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        TIMER.schedule(() -> {
+            CompletableFuture<V> reload;
+            try {
+                reload = delegate.asyncReload(key, oldValue, executor);
+            } catch (RuntimeException | Error e) {
+                // 如executor拒绝任务，未完成的future会使Caffeine认为该key一直在刷新
+                future.completeExceptionally(e);
+                return;
+            }
+            reload.whenComplete((value, error) -> {
+                if (error == null) {
+                    future.complete(value);
+                } else {
+                    future.completeExceptionally(error);
+                }
+            });
+        }, delay, TimeUnit.NANOSECONDS);
+        return future;
+    }
+
+    private static ScheduledExecutorService newTimer() {
+        return new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "jittered-refresh-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.shf.caffeine.loader;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * description :
+ * 批量加载函数，一次调用后端获取一批key对应的值。
+ * 返回结果中缺失的key视为不存在，不会写入缓存。
+ *
+ * @author agent
+ * @date 2026/10/17 10:12
+ */
+@FunctionalInterface
+public interface BatchLoader<K, V> {
+
+    /**
+     * @param keys 待加载的key，不为空
+     * @return key与值的映射
+     * @throws Exception 加载失败
+     */
+    Map<K, V> loadBatch(Set<K> keys) throws Exception;
+}
@@ -0,0 +1,114 @@
+package com.shf.caffeine.loader;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * description :
+ * 基于{@link BatchLoader}的批量加载器，使{@code LoadingCache.getAll}的N个未命中key只产生少量后端调用：
+ * 1、未命中的key按chunkSize切分为若干批次；
+ * 2、仅有一个批次时在调用线程直接执行，多个批次时并行提交至executor；
+ * 3、任一批次失败则整体失败，与{@link CacheLoader#loadAll}的语义一致。
+ * 单key的{@code get}同样经由批量接口加载。
+ * <pre>
+ * LoadingCache&lt;String, String&gt; cache = Caffeine.newBuilder()
+ *         .maximumSize(100)
+ *         .recordStats()
+ *         .build(new BulkCacheLoader&lt;&gt;(this::getValues, 100));
+ * Map&lt;String, String&gt; values = cache.getAll(keys);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:12
+ */
+public class BulkCacheLoader<K, V> implements CacheLoader<K, V> {
+    private final BatchLoader<K, V> batchLoader;
+    private final int chunkSize;
+    private final Executor executor;
+
+    public BulkCacheLoader(BatchLoader<K, V> batchLoader, int chunkSize) {
+        this(batchLoader, chunkSize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param batchLoader 批量加载函数
+     * @param chunkSize   单批次最大key数
+     * @param executor    并行执行批次的线程池
+     */
+    public BulkCacheLoader(BatchLoader<K, V> batchLoader, int chunkSize, Executor executor) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.batchLoader = batchLoader;
+        this.chunkSize = chunkSize;
+        this.executor = executor;
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+        return batchLoader.loadBatch(Collections.singleton(key)).get(key);
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+        List<Set<K>> chunks = partition(keys);
+        if (chunks.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (chunks.size() == 1) {
+            return batchLoader.loadBatch(chunks.get(0));
+        }
+
+        List<CompletableFuture<Map<K, V>>> futures = new ArrayList<>(chunks.size());
+        for (Set<K> chunk : chunks) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return batchLoader.loadBatch(chunk);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        Map<K, V> result = new HashMap<>();
+        try {
+            for (CompletableFuture<Map<K, V>> future : futures) {
+                result.putAll(future.join());
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    List<Set<K>> partition(Iterable<? extends K> keys) {
+        List<Set<K>> chunks = new ArrayList<>();
+        Set<K> current = new LinkedHashSet<>();
+        for (K key : keys) {
+            current.add(key);
+            if (current.size() == chunkSize) {
+                chunks.add(current);
+                current = new LinkedHashSet<>();
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,166 @@
+package com.shf.caffeine.loader;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * 合并加载器：将多个线程在短时间窗口内发起的单key加载合并为一次{@link BatchLoader}调用。
+ * 1、窗口内首个未命中的key开启计时，达到maxBatchSize或窗口到期时立即提交批次，二者以先到为准；
+ * 2、每个调用方持有各自的{@link CompletableFuture}，批次返回后分别完成，批次失败时一并失败；
+ * 3、同一窗口内重复的key共享同一个future。
+ * 同步的{@code LoadingCache.get}在调用线程上等待自身future，{@code buildAsync}则直接返回future不阻塞线程。
+ * <pre>
+ * LoadingCache&lt;String, String&gt; cache = Caffeine.newBuilder()
+ *         .maximumSize(100)
+ *         .build(new CoalescingBatchLoader&lt;&gt;(this::getValues, 64, 1, TimeUnit.MILLISECONDS));
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:12
+ */
+public class CoalescingBatchLoader<K, V> implements CacheLoader<K, V> {
+    private static final ScheduledExecutorService TIMER = newTimer();
+
+    private final BatchLoader<K, V> batchLoader;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Executor executor;
+
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private long generation;
+
+    public CoalescingBatchLoader(BatchLoader<K, V> batchLoader, int maxBatchSize, long window, TimeUnit unit) {
+        this(batchLoader, maxBatchSize, window, unit, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param batchLoader  批量加载函数
+     * @param maxBatchSize 单批次最大key数，达到后立即提交
+     * @param window       合并窗口
+     * @param unit         窗口时间单位
+     * @param executor     执行批量加载的线程池
+     */
+    public CoalescingBatchLoader(BatchLoader<K, V> batchLoader, int maxBatchSize, long window, TimeUnit unit,
+                                 Executor executor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.batchLoader = batchLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = unit.toNanos(window);
+        this.executor = executor;
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+        try {
+            return enqueue(key).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<V> asyncLoad(K key, Executor executor) {
+        return enqueue(key);
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+        Set<K> batch = new LinkedHashSet<>();
+        for (K key : keys) {
+            batch.add(key);
+        }
+        return batchLoader.loadBatch(batch);
+    }
+
+    CompletableFuture<V> enqueue(K key) {
+        Map<K, CompletableFuture<V>> full = null;
+        CompletableFuture<V> future;
+        synchronized (this) {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            if (pending.size() >= maxBatchSize) {
+                full = drain();
+            } else if (pending.size() == 1) {
+                long expected = generation;
+                TIMER.schedule(() -> flush(expected), windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    private void flush(long expected) {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            // 批次已因达到maxBatchSize提前提交，当前计时已失效
+            if (generation != expected || pending.isEmpty()) {
+                return;
+            }
+            batch = drain();
+        }
+        dispatch(batch);
+    }
+
+    private Map<K, CompletableFuture<V>> drain() {
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        generation++;
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            executor.execute(() -> complete(batch));
+        } catch (RuntimeException e) {
+            for (CompletableFuture<V> future : batch.values()) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void complete(Map<K, CompletableFuture<V>> batch) {
+        Set<K> keys = batch.keySet();
+        try {
+            Map<K, V> values = batchLoader.loadBatch(keys);
+            for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+                entry.getValue().complete(values.get(entry.getKey()));
+            }
+        } catch (Throwable t) {
+            for (CompletableFuture<V> future : batch.values()) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    private static ScheduledExecutorService newTimer() {
+        return new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "coalescing-batch-loader-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
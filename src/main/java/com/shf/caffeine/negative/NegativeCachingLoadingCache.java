@@ -0,0 +1,129 @@
+package com.shf.caffeine.negative;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * 负缓存：{@code Sample#autoLoadCache2}中加载返回null被视为加载失败且不会缓存，不存在的key每次都会穿透到后端。
+ * 本类在原{@link LoadingCache}之外维护一个独立的"不存在"标记缓存：
+ * 1、加载结果为null时写入标记(共享的{@link Boolean#TRUE}，每个条目仅占用key及节点开销)；
+ * 2、标记拥有独立的TTL与容量上限，不挤占正常数据的容量，过期后重新访问后端；
+ * 3、put/invalidate会同时清除标记，保证写入后立即可见。
+ * <pre>
+ * NegativeCachingLoadingCache&lt;String, String&gt; cache = NegativeCachingLoadingCache.wrap(
+ *         Caffeine.newBuilder().maximumSize(100).recordStats().build(this::getValueNull),
+ *         30, TimeUnit.SECONDS, 10_000);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:17
+ */
+public class NegativeCachingLoadingCache<K, V> {
+    private final LoadingCache<K, V> delegate;
+    private final Cache<K, Boolean> absent;
+
+    NegativeCachingLoadingCache(LoadingCache<K, V> delegate, long duration, TimeUnit unit, long maximumSize,
+                                Ticker ticker, Executor executor) {
+        this.delegate = delegate;
+        this.absent = Caffeine.newBuilder()
+                .expireAfterWrite(duration, unit)
+                .maximumSize(maximumSize)
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param delegate    原缓存
+     * @param duration    不存在标记的存活时间
+     * @param unit        时间单位
+     * @param maximumSize 不存在标记的最大数量
+     */
+    public static <K, V> NegativeCachingLoadingCache<K, V> wrap(LoadingCache<K, V> delegate, long duration,
+                                                                TimeUnit unit, long maximumSize) {
+        return new NegativeCachingLoadingCache<>(delegate, duration, unit, maximumSize, Ticker.systemTicker(),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @return 缓存值，key不存在时返回null；标记有效期内不会再次调用加载函数
+     */
+    public V get(K key) {
+        if (absent.getIfPresent(key) != null) {
+            return null;
+        }
+        V value = delegate.get(key);
+        if (value == null) {
+            absent.put(key, Boolean.TRUE);
+            // 加载返回null与写入标记之间的并发put可能先清除了标记，写入后复查，避免标记遮蔽已写入的值；
+            // 经asMap读取不计入原缓存的命中统计
+            value = delegate.asMap().get(key);
+            if (value != null) {
+                absent.invalidate(key);
+            }
+        }
+        return value;
+    }
+
+    public V getIfPresent(K key) {
+        return delegate.getIfPresent(key);
+    }
+
+    /**
+     * @return key是否处于不存在标记的有效期内
+     */
+    public boolean isKnownAbsent(K key) {
+        return absent.getIfPresent(key) != null;
+    }
+
+    public void put(K key, V value) {
+        delegate.put(key, value);
+        absent.invalidate(key);
+    }
+
+    public void invalidate(K key) {
+        delegate.invalidate(key);
+        absent.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        delegate.invalidateAll();
+        absent.invalidateAll();
+    }
+
+    public void cleanUp() {
+        delegate.cleanUp();
+        absent.cleanUp();
+    }
+
+    public LoadingCache<K, V> delegate() {
+        return delegate;
+    }
+
+    /**
+     * @return 原缓存的统计
+     */
+    public CacheStats stats() {
+        return delegate.stats();
+    }
+
+    /**
+     * @return 不存在标记的统计，hitCount即为被拦截的后端调用次数
+     */
+    public CacheStats negativeStats() {
+        return absent.stats();
+    }
+
+    public long negativeSize() {
+        return absent.estimatedSize();
+    }
+}
@@ -0,0 +1,193 @@
+package com.shf.caffeine.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * description :
+ * 基于直接内存{@link ByteBuffer}分片(slab)的堆外存储，作为{@link TieredCache}的二级缓存：
+ * 1、所有分片组成环形日志，值顺序追加写入当前分片，写满后切换到下一分片；
+ * 2、切换到的分片若已有数据，则整片淘汰其中的条目(FIFO)，被覆盖或删除的旧值所占空间随分片淘汰一并回收；
+ * 3、索引保存在堆内，每个条目仅占用key及一个位置对象，值字节不参与GC扫描；
+ * 4、读操作使用{@link StampedLock}乐观读复制字节，仅与分片淘汰冲突时退化为读锁；写操作互斥。
+ *
+ * @author agent
+ * @date 2026/10/17 10:29
+ */
+public class OffHeapStore<K, V> {
+    private final Serializer<V> serializer;
+    private final int slabSize;
+    private final ByteBuffer[] slabs;
+    private final long[] generations;
+    private final List<List<K>> slabKeys;
+    private final ConcurrentMap<K, Location> index = new ConcurrentHashMap<>();
+    private final StampedLock lock = new StampedLock();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private int currentSlab;
+    private int position;
+
+    /**
+     * @param serializer 值序列化器
+     * @param slabCount  分片数，至少为2
+     * @param slabSize   单个分片的字节数，同时也是单个值的上限
+     */
+    public OffHeapStore(Serializer<V> serializer, int slabCount, int slabSize) {
+        if (slabCount < 2 || slabSize < 1) {
+            throw new IllegalArgumentException("slabCount must be at least 2 and slabSize positive");
+        }
+        this.serializer = serializer;
+        this.slabSize = slabSize;
+        this.slabs = new ByteBuffer[slabCount];
+        this.generations = new long[slabCount];
+        this.slabKeys = new ArrayList<>(slabCount);
+        for (int i = 0; i < slabCount; i++) {
+            slabs[i] = ByteBuffer.allocateDirect(slabSize);
+            slabKeys.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * @return 是否写入成功，超过分片大小的值不写入
+     */
+    public boolean put(K key, V value) {
+        byte[] bytes = serializer.serialize(value);
+        if (bytes.length > slabSize) {
+            index.remove(key);
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (slabSize - position < bytes.length) {
+                advance();
+            }
+            ByteBuffer target = slabs[currentSlab].duplicate();
+            target.position(position);
+            target.put(bytes);
+            index.put(key, new Location(currentSlab, generations[currentSlab], position, bytes.length));
+            slabKeys.get(currentSlab).add(key);
+            position += bytes.length;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public V get(K key) {
+        Location location = index.get(key);
+        byte[] bytes = location == null ? null : read(location);
+        if (bytes == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return serializer.deserialize(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * 读取并移除，用于晋升至一级缓存
+     */
+    public V take(K key) {
+        Location location = index.remove(key);
+        byte[] bytes = location == null ? null : read(location);
+        if (bytes == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return serializer.deserialize(ByteBuffer.wrap(bytes));
+    }
+
+    public void remove(K key) {
+        index.remove(key);
+    }
+
+    public boolean containsKey(K key) {
+        return index.containsKey(key);
+    }
+
+    public long size() {
+        return index.size();
+    }
+
+    /**
+     * @return 预分配的直接内存字节数
+     */
+    public long capacityBytes() {
+        return (long) slabs.length * slabSize;
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    private byte[] read(Location location) {
+        byte[] bytes = new byte[location.length];
+        long stamp = lock.tryOptimisticRead();
+        if (copy(location, bytes) && lock.validate(stamp)) {
+            return bytes;
+        }
+        stamp = lock.readLock();
+        try {
+            return copy(location, bytes) ? bytes : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean copy(Location location, byte[] bytes) {
+        if (generations[location.slab] != location.generation) {
+            return false;
+        }
+        ByteBuffer source = slabs[location.slab].duplicate();
+        source.position(location.offset);
+        source.get(bytes, 0, location.length);
+        return generations[location.slab] == location.generation;
+    }
+
+    private void advance() {
+        currentSlab = (currentSlab + 1) % slabs.length;
+        position = 0;
+        long generation = generations[currentSlab];
+        List<K> keys = slabKeys.get(currentSlab);
+        for (K key : keys) {
+            Location location = index.get(key);
+            // 已被覆盖写入其他分片或已删除的key不计入淘汰
+            if (location != null && location.slab == currentSlab && location.generation == generation
+                    && index.remove(key, location)) {
+                evictionCount.increment();
+            }
+        }
+        keys.clear();
+        generations[currentSlab] = generation + 1;
+    }
+
+    private static final class Location {
+        final int slab;
+        final long generation;
+        final int offset;
+        final int length;
+
+        Location(int slab, long generation, int offset, int length) {
+            this.slab = slab;
+            this.generation = generation;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
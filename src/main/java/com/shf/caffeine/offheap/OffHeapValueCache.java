@@ -0,0 +1,125 @@
+package com.shf.caffeine.offheap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * description :
+ * 值存放于堆外的缓存：Caffeine条目只保存小的{@link ValueHandle}，值字节由{@link SlabAllocator}管理，
+ * 大对象不再进入堆，GC扫描与复制的开销随之下降。
+ * 1、写入时序列化并复制到堆外块，条目被移除(驱逐、过期、覆盖、失效)后释放对应块；
+ * 2、{@link #get}通过{@link Serializer}反序列化，{@link #read}直接提供只读的零拷贝视图；
+ * 3、权重按值字节数计算，构建选项须以maximumWeight限制值的字节总量，不可使用maximumSize。
+ * 构建选项中的removalListener与weigher由本类占用，不可再设置。
+ * <pre>
+ * OffHeapValueCache&lt;String, String&gt; cache = new OffHeapValueCache&lt;&gt;(
+ *         Caffeine.newBuilder().maximumWeight(512L * 1024 * 1024).recordStats(),
+ *         new SlabAllocator(1 &lt;&lt; 20, 640L * 1024 * 1024, 64), Serializer.string());
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:35
+ */
+public class OffHeapValueCache<K, V> {
+    private final Cache<K, ValueHandle> cache;
+    private final SlabAllocator allocator;
+    private final Serializer<V> serializer;
+    private final LongAdder allocationFailureCount = new LongAdder();
+
+    public OffHeapValueCache(Caffeine<Object, Object> builder, SlabAllocator allocator, Serializer<V> serializer) {
+        this.allocator = allocator;
+        this.serializer = serializer;
+        this.cache = builder
+                .weigher((K key, ValueHandle handle) -> handle.length)
+                .removalListener((K key, ValueHandle handle, RemovalCause cause) -> {
+                    if (handle != null) {
+                        handle.release();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return 是否写入成功，堆外内存不足时不写入并移除旧值
+     */
+    public boolean put(K key, V value) {
+        byte[] bytes = serializer.serialize(value);
+        long address = allocator.allocate(bytes.length);
+        if (address < 0) {
+            allocationFailureCount.increment();
+            cache.invalidate(key);
+            return false;
+        }
+        allocator.write(address, bytes);
+        cache.put(key, new ValueHandle(allocator, address, bytes.length));
+        return true;
+    }
+
+    public V get(K key) {
+        return read(key, serializer::deserialize);
+    }
+
+    /**
+     * 未命中时通过mappingFunction加载并写入，并发加载同一key时可能重复调用mappingFunction
+     */
+    public V get(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 在持有引用期间以只读零拷贝视图访问值字节，视图不可在reader之外保留
+     *
+     * @return reader的结果，未命中时返回null
+     */
+    public <R> R read(K key, Function<ByteBuffer, R> reader) {
+        ValueHandle handle = cache.getIfPresent(key);
+        if (handle == null || !handle.retain()) {
+            return null;
+        }
+        try {
+            return reader.apply(allocator.view(handle.address, handle.length));
+        } finally {
+            handle.release();
+        }
+    }
+
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public Cache<K, ?> delegate() {
+        return cache;
+    }
+
+    public SlabAllocator allocator() {
+        return allocator;
+    }
+
+    public long allocationFailureCount() {
+        return allocationFailureCount.sum();
+    }
+}
@@ -0,0 +1,75 @@
+package com.shf.caffeine.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * description :
+ * 堆外存储的值序列化器
+ *
+ * @author agent
+ * @date 2026/10/17 10:29
+ */
+public interface Serializer<T> {
+
+    byte[] serialize(T value);
+
+    /**
+     * @param buffer 只读视图，position至limit之间为序列化内容
+     */
+    T deserialize(ByteBuffer buffer);
+
+    /**
+     * @return UTF-8字符串序列化器
+     */
+    static Serializer<String> string() {
+        return StringSerializer.INSTANCE;
+    }
+
+    /**
+     * @return 原样保存的字节数组序列化器
+     */
+    static Serializer<byte[]> byteArray() {
+        return ByteArraySerializer.INSTANCE;
+    }
+
+    final class StringSerializer implements Serializer<String> {
+        static final StringSerializer INSTANCE = new StringSerializer();
+
+        private StringSerializer() {
+        }
+
+        @Override
+        public byte[] serialize(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(ByteBuffer buffer) {
+            if (buffer.hasArray()) {
+                return new String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(),
+                        StandardCharsets.UTF_8);
+            }
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        }
+    }
+
+    final class ByteArraySerializer implements Serializer<byte[]> {
+        static final ByteArraySerializer INSTANCE = new ByteArraySerializer();
+
+        private ByteArraySerializer() {
+        }
+
+        @Override
+        public byte[] serialize(byte[] value) {
+            return value;
+        }
+
+        @Override
+        public byte[] deserialize(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+    }
+}
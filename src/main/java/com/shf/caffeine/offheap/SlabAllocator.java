@@ -0,0 +1,167 @@
+package com.shf.caffeine.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * description :
+ * 堆外slab分配器(memcached风格)：
+ * 1、按2的幂划分若干大小级别，最小为minChunkSize，最大为slabSize；
+ * 2、直接内存按slab为单位按需申请，总量不超过maxBytes，slab首次使用时归属某个级别并切分为等长的块；
+ * 3、每个级别维护空闲块栈，分配与释放为O(1)；
+ * 4、slab归属级别后不再迁移，值大小分布变化较大时可能出现部分级别空闲而其他级别分配失败。
+ * 地址编码为(slab序号 &lt;&lt; 32) | 偏移量。
+ *
+ * @author agent
+ * @date 2026/10/17 10:35
+ */
+public class SlabAllocator {
+    private final int slabSize;
+    private final int minChunkShift;
+    private final ByteBuffer[] slabs;
+    private final AtomicInteger slabCount = new AtomicInteger();
+    private final SizeClass[] classes;
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    /**
+     * @param slabSize     单个slab字节数，须为2的幂
+     * @param maxBytes     直接内存上限
+     * @param minChunkSize 最小块字节数，须为2的幂
+     */
+    public SlabAllocator(int slabSize, long maxBytes, int minChunkSize) {
+        if (Integer.bitCount(slabSize) != 1 || Integer.bitCount(minChunkSize) != 1 || minChunkSize > slabSize) {
+            throw new IllegalArgumentException("slabSize and minChunkSize must be powers of two");
+        }
+        this.slabSize = slabSize;
+        this.minChunkShift = Integer.numberOfTrailingZeros(minChunkSize);
+        this.slabs = new ByteBuffer[(int) Math.max(1, maxBytes / slabSize)];
+        int classCount = Integer.numberOfTrailingZeros(slabSize) - minChunkShift + 1;
+        this.classes = new SizeClass[classCount];
+        for (int i = 0; i < classCount; i++) {
+            classes[i] = new SizeClass(minChunkSize << i);
+        }
+    }
+
+    /**
+     * @return 块地址，内存不足或超过slabSize时返回-1
+     */
+    public long allocate(int size) {
+        int classIndex = classIndexOf(size);
+        if (classIndex < 0) {
+            return -1;
+        }
+        long address = classes[classIndex].allocate();
+        if (address >= 0) {
+            usedBytes.addAndGet(classes[classIndex].chunkSize);
+        }
+        return address;
+    }
+
+    public void free(long address, int size) {
+        int classIndex = classIndexOf(size);
+        classes[classIndex].free(address);
+        usedBytes.addAndGet(-classes[classIndex].chunkSize);
+    }
+
+    public void write(long address, byte[] bytes) {
+        ByteBuffer target = slabs[slabOf(address)].duplicate();
+        target.position(offsetOf(address));
+        target.put(bytes);
+    }
+
+    /**
+     * @return 只读的零拷贝视图，仅在块未被释放前有效
+     */
+    public ByteBuffer view(long address, int length) {
+        ByteBuffer view = slabs[slabOf(address)].duplicate();
+        int offset = offsetOf(address);
+        view.limit(offset + length);
+        view.position(offset);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * @return 已分配块占用的字节数(按块大小计)
+     */
+    public long usedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * @return 已申请的直接内存字节数
+     */
+    public long reservedBytes() {
+        return (long) slabCount.get() * slabSize;
+    }
+
+    public long maxBytes() {
+        return (long) slabs.length * slabSize;
+    }
+
+    private int classIndexOf(int size) {
+        if (size > slabSize) {
+            return -1;
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(1, size) - 1);
+        return Math.max(0, shift - minChunkShift);
+    }
+
+    private int newSlab() {
+        int index;
+        do {
+            index = slabCount.get();
+            if (index >= slabs.length) {
+                return -1;
+            }
+        } while (!slabCount.compareAndSet(index, index + 1));
+        slabs[index] = ByteBuffer.allocateDirect(slabSize);
+        return index;
+    }
+
+    private static int slabOf(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offsetOf(long address) {
+        return (int) address;
+    }
+
+    private final class SizeClass {
+        final int chunkSize;
+        long[] free = new long[16];
+        int top;
+
+        SizeClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        synchronized long allocate() {
+            if (top > 0) {
+                return free[--top];
+            }
+            int slab = newSlab();
+            if (slab < 0) {
+                return -1;
+            }
+            long base = (long) slab << 32;
+            for (int offset = slabSize - chunkSize; offset > 0; offset -= chunkSize) {
+                push(base | offset);
+            }
+            return base;
+        }
+
+        synchronized void free(long address) {
+            push(address);
+        }
+
+        private void push(long address) {
+            if (top == free.length) {
+                long[] grown = new long[free.length << 1];
+                System.arraycopy(free, 0, grown, 0, top);
+                free = grown;
+            }
+            free[top++] = address;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.shf.caffeine.offheap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * description :
+ * 二级缓存：一级为堆内Caffeine缓存，二级为堆外{@link OffHeapStore}。
+ * 1、一级缓存因容量被驱逐的条目(通过evictionListener，同{@code Sample#evictExpireAfterWriteCache})降级写入二级缓存，
+ * 过期、手动失效的条目不降级；
+ * 2、一级未命中时查询二级，命中则从二级移除并晋升回一级；
+ * 3、两级均未命中时调用加载函数写入一级；
+ * 4、分别统计两级命中率。
+ * 一级缓存的evictionListener由本类占用，构建选项中不可再设置。
+ * <pre>
+ * TieredCache&lt;String, String&gt; cache = new TieredCache&lt;&gt;(
+ *         Caffeine.newBuilder().maximumSize(100).recordStats(),
+ *         new OffHeapStore&lt;&gt;(Serializer.string(), 64, 16 * 1024 * 1024));
+ * String value = cache.get(MOCK_KEY, this::getValue);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:29
+ */
+public class TieredCache<K, V> {
+    private final Cache<K, V> l1;
+    private final OffHeapStore<K, V> l2;
+    private final LongAdder l1HitCount = new LongAdder();
+    private final LongAdder l2HitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder demotionCount = new LongAdder();
+
+    public TieredCache(Caffeine<Object, Object> builder, OffHeapStore<K, V> l2) {
+        this.l2 = l2;
+        this.l1 = builder
+                .evictionListener((K key, V value, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE && key != null && value != null && l2.put(key, value)) {
+                        demotionCount.increment();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return 缓存值，两级均未命中且加载结果为null时返回null
+     */
+    public V get(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = l1.getIfPresent(key);
+        if (value != null) {
+            l1HitCount.increment();
+            return value;
+        }
+        return l1.get(key, k -> {
+            V promoted = l2.take(k);
+            if (promoted != null) {
+                l2HitCount.increment();
+                return promoted;
+            }
+            missCount.increment();
+            return mappingFunction.apply(k);
+        });
+    }
+
+    public V getIfPresent(K key) {
+        V value = l1.getIfPresent(key);
+        if (value != null) {
+            l1HitCount.increment();
+            return value;
+        }
+        value = l2.take(key);
+        if (value != null) {
+            l2HitCount.increment();
+            l1.put(key, value);
+            return value;
+        }
+        missCount.increment();
+        return null;
+    }
+
+    public void put(K key, V value) {
+        l2.remove(key);
+        l1.put(key, value);
+    }
+
+    public void invalidate(K key) {
+        l1.invalidate(key);
+        l2.remove(key);
+    }
+
+    public Cache<K, V> l1() {
+        return l1;
+    }
+
+    public OffHeapStore<K, V> l2() {
+        return l2;
+    }
+
+    public TierStats stats() {
+        return new TierStats(l1HitCount.sum(), l2HitCount.sum(), missCount.sum(), demotionCount.sum(),
+                l2.evictionCount());
+    }
+
+    /**
+     * description :
+     * 两级缓存的命中统计
+     */
+    public static final class TierStats {
+        private final long l1HitCount;
+        private final long l2HitCount;
+        private final long missCount;
+        private final long demotionCount;
+        private final long l2EvictionCount;
+
+        TierStats(long l1HitCount, long l2HitCount, long missCount, long demotionCount, long l2EvictionCount) {
+            this.l1HitCount = l1HitCount;
+            this.l2HitCount = l2HitCount;
+            this.missCount = missCount;
+            this.demotionCount = demotionCount;
+            this.l2EvictionCount = l2EvictionCount;
+        }
+
+        public long requestCount() {
+            return l1HitCount + l2HitCount + missCount;
+        }
+
+        public long l1HitCount() {
+            return l1HitCount;
+        }
+
+        public long l2HitCount() {
+            return l2HitCount;
+        }
+
+        public long missCount() {
+            return missCount;
+        }
+
+        public long demotionCount() {
+            return demotionCount;
+        }
+
+        public long l2EvictionCount() {
+            return l2EvictionCount;
+        }
+
+        /**
+         * @return 一级命中数 / 总请求数
+         */
+        public double l1HitRate() {
+            long requests = requestCount();
+            return requests == 0 ? 1.0 : (double) l1HitCount / requests;
+        }
+
+        /**
+         * @return 二级命中数 / 到达二级的请求数
+         */
+        public double l2HitRate() {
+            long requests = l2HitCount + missCount;
+            return requests == 0 ? 1.0 : (double) l2HitCount / requests;
+        }
+
+        /**
+         * @return 两级合计命中率
+         */
+        public double hitRate() {
+            long requests = requestCount();
+            return requests == 0 ? 1.0 : (double) (l1HitCount + l2HitCount) / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("TierStats{l1Hits=%d, l2Hits=%d, misses=%d, l1HitRate=%.4f, l2HitRate=%.4f, "
+                            + "demotions=%d, l2Evictions=%d}", l1HitCount, l2HitCount, missCount, l1HitRate(),
+                    l2HitRate(), demotionCount, l2EvictionCount);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.shf.caffeine.offheap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * description :
+ * 堆外值的句柄，缓存条目中仅保存该对象。
+ * 采用引用计数：缓存持有一个引用，读取期间临时持有一个引用，计数归零时释放堆外块，避免读取过程中块被复用。
+ *
+ * @author agent
+ * @date 2026/10/17 10:35
+ */
+final class ValueHandle {
+    private final SlabAllocator allocator;
+    final long address;
+    final int length;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    ValueHandle(SlabAllocator allocator, long address, int length) {
+        this.allocator = allocator;
+        this.address = address;
+        this.length = length;
+    }
+
+    /**
+     * @return 是否成功持有引用，已释放的句柄返回false
+     */
+    boolean retain() {
+        int current;
+        do {
+            current = references.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            allocator.free(address, length);
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package com.shf.caffeine.primitive;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+
+/**
+ * description :
+ * long键缓存的公共实现：
+ * 1、按哈希高位划分分段，每个分段为一张定长的线性探测开放寻址表，删除时回移后续条目而不使用墓碑；
+ * 2、读取先走{@link StampedLock}乐观读，校验失败再退化为读锁，命中路径不装箱、不分配对象，未设置expireAfterAccess时不加锁；
+ * 3、分段条目数达到上限时按CLOCK算法淘汰：时钟指针扫过被访问过的条目时清除其访问位，淘汰首个未被访问或已过期的条目；
+ * 4、过期条目在读取时视为未命中，并在写入、淘汰扫描或{@link #cleanUp()}时移除；
+ * 5、maximumSize按分段均分，各分段上限之和恰为maximumSize，键在分段间分布不均时可能在总数未达上限前提前淘汰；
+ * 6、loader在锁外执行，同一key的并发未命中只加载一次，其余调用等待其结果，加载结果仅在写入时短暂持有写锁。
+ * 命中时的访问位在锁外写入，与并发删除的回移竞争时可能落在被移入该槽位的其他key上，只影响CLOCK淘汰的精度；
+ * 访问时间决定expireAfterAccess的截止时间，在读锁内确认槽位仍属于该key后写入，避免延长其他key的存活时间。
+ *
+ * @author agent
+ * @date 2026/10/17 10:38
+ */
+abstract class AbstractLongCache<S extends AbstractLongCache.Segment> {
+    final S[] segments;
+    private final int segmentShift;
+    private final Ticker ticker;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final boolean recordStats;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final ConcurrentHashMap<Long, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    AbstractLongCache(PrimitiveCacheBuilder builder, IntFunction<S[]> arrayFactory, SegmentFactory<S> segmentFactory) {
+        // 分段数向下取2的幂且不超过maximumSize，保证每个分段的上限至少为1
+        int segmentCount = Integer.highestOneBit((int) Math.min(builder.concurrencyLevel, builder.maximumSize));
+        this.segments = arrayFactory.apply(segmentCount);
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+        // 余数分给前几个分段，各分段上限之和恰为maximumSize
+        int baseSize = (int) (builder.maximumSize / segmentCount);
+        int remainder = (int) (builder.maximumSize % segmentCount);
+        boolean writeTimes = builder.expireAfterWriteNanos >= 0;
+        boolean accessTimes = builder.expireAfterAccessNanos >= 0;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = segmentFactory.create(i < remainder ? baseSize + 1 : baseSize, writeTimes, accessTimes);
+        }
+        this.ticker = builder.ticker;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.recordStats = builder.recordStats;
+    }
+
+    public void invalidate(long key) {
+        long hash = hash(key);
+        S segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            int index = segment.find(key, hash);
+            if (index >= 0) {
+                segment.removeAt(index);
+            }
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    public void invalidateAll() {
+        for (S segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                segment.clear();
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * @return 条目数，包含尚未移除的过期条目
+     */
+    public long estimatedSize() {
+        long size = 0;
+        for (S segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * 移除全部已过期的条目
+     */
+    public void cleanUp() {
+        if (!expires()) {
+            return;
+        }
+        for (S segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                long now = ticker.read();
+                for (int i = 0; i <= segment.mask; ) {
+                    // 回移可能把后续条目移入当前槽位，故移除后原地重新检查
+                    if (segment.used[i] && isExpired(segment, i, now)) {
+                        segment.removeAt(i);
+                        evictionCount.increment();
+                    } else {
+                        i++;
+                    }
+                }
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    public CacheStats stats() {
+        return CacheStats.of(hitCount.sum(), missCount.sum(), loadSuccessCount.sum(), loadFailureCount.sum(),
+                totalLoadTime.sum(), evictionCount.sum(), evictionCount.sum());
+    }
+
+    final S segmentFor(long hash) {
+        return segments[segmentShift == 64 ? 0 : (int) (hash >>> segmentShift)];
+    }
+
+    final long now() {
+        return expires() ? ticker.read() : 0L;
+    }
+
+    final long loadStartTime() {
+        return recordStats ? ticker.read() : 0L;
+    }
+
+    /**
+     * 在锁外调用loader，同一key的并发未命中共享首个调用的结果；结果为null时不写入。
+     * 加载期间若该key已被put写入，则保留已写入的值并返回之。
+     */
+    final Object loadValue(S segment, long key, long hash, LongFunction<?> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            onMiss();
+            return await(existing);
+        }
+        try {
+            // 读取未命中与登记之间，其他线程可能已完成加载并写入
+            long stamp = segment.lock.readLock();
+            try {
+                long now = now();
+                int index = segment.find(key, hash);
+                if (isLive(segment, index, now)) {
+                    onHit(segment, index, now);
+                    Object value = segment.boxedValue(index);
+                    future.complete(value);
+                    return value;
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+            onMiss();
+            long startTime = loadStartTime();
+            Object value;
+            try {
+                value = loader.apply(key);
+            } catch (RuntimeException | Error e) {
+                onLoad(startTime, false);
+                future.completeExceptionally(e);
+                throw e;
+            }
+            onLoad(startTime, value != null);
+            if (value != null) {
+                value = store(segment, key, hash, value);
+            }
+            future.complete(value);
+            return value;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    private Object store(S segment, long key, long hash, Object value) {
+        long stamp = segment.lock.writeLock();
+        try {
+            long now = now();
+            int index = segment.find(key, hash);
+            if (isLive(segment, index, now)) {
+                return segment.boxedValue(index);
+            }
+            segment.setBoxedValue(acquireSlot(segment, key, hash, now), value);
+            return value;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    final boolean isLive(Segment segment, int index, long now) {
+        return index >= 0 && !isExpired(segment, index, now);
+    }
+
+    /**
+     * 须持有锁
+     */
+    final void onHit(Segment segment, int index, long now) {
+        segment.referenced[index] = true;
+        if (segment.accessTimes != null) {
+            segment.accessTimes[index] = now;
+        }
+        if (recordStats) {
+            hitCount.increment();
+        }
+    }
+
+    /**
+     * 未持有锁时记录命中，index为查找时的槽位，此后可能已被并发删除回移给其他key
+     */
+    final void onHit(Segment segment, long key, long hash, int index, long now) {
+        segment.referenced[index] = true;
+        if (segment.accessTimes != null) {
+            long stamp = segment.lock.readLock();
+            try {
+                int current = segment.used[index] && segment.keys[index] == key ? index : segment.find(key, hash);
+                if (current >= 0) {
+                    segment.accessTimes[current] = now;
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        if (recordStats) {
+            hitCount.increment();
+        }
+    }
+
+    final void onMiss() {
+        if (recordStats) {
+            missCount.increment();
+        }
+    }
+
+    final void onLoad(long startTime, boolean success) {
+        if (recordStats) {
+            totalLoadTime.add(ticker.read() - startTime);
+            (success ? loadSuccessCount : loadFailureCount).increment();
+        }
+    }
+
+    /**
+     * 须持有写锁，返回key所在的槽位，key不存在时占用新槽位，必要时先淘汰一个条目
+     */
+    final int acquireSlot(Segment segment, long key, long hash, long now) {
+        int index = segment.find(key, hash);
+        if (index < 0) {
+            if (segment.size >= segment.maxSize) {
+                evictOne(segment, now);
+            }
+            index = segment.insert(key, hash);
+        }
+        if (segment.writeTimes != null) {
+            segment.writeTimes[index] = now;
+        }
+        if (segment.accessTimes != null) {
+            segment.accessTimes[index] = now;
+        }
+        segment.referenced[index] = false;
+        return index;
+    }
+
+    private void evictOne(Segment segment, long now) {
+        // 首轮扫描至多清除全部访问位，第二轮必能找到淘汰对象
+        for (int scanned = 0, limit = 2 * (segment.mask + 1); scanned < limit; scanned++) {
+            int index = segment.hand;
+            segment.hand = (index + 1) & segment.mask;
+            if (!segment.used[index]) {
+                continue;
+            }
+            if (segment.referenced[index] && !isExpired(segment, index, now)) {
+                segment.referenced[index] = false;
+                continue;
+            }
+            segment.removeAt(index);
+            evictionCount.increment();
+            return;
+        }
+    }
+
+    private boolean expires() {
+        return expireAfterWriteNanos >= 0 || expireAfterAccessNanos >= 0;
+    }
+
+    private boolean isExpired(Segment segment, int index, long now) {
+        return (segment.writeTimes != null && now - segment.writeTimes[index] >= expireAfterWriteNanos)
+                || (segment.accessTimes != null && now - segment.accessTimes[index] >= expireAfterAccessNanos);
+    }
+
+    /**
+     * murmur3的64位终结函数，高位用于选择分段，低位用于定位槽位
+     */
+    static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    interface SegmentFactory<S extends Segment> {
+        S create(int maxSize, boolean writeTimes, boolean accessTimes);
+    }
+
+    /**
+     * 分段的键与元数据，值数组由子类按类型保存；结构修改须持有写锁
+     */
+    abstract static class Segment {
+        final StampedLock lock = new StampedLock();
+        final int maxSize;
+        final int mask;
+        final long[] keys;
+        final boolean[] used;
+        final boolean[] referenced;
+        final long[] writeTimes;
+        final long[] accessTimes;
+        int size;
+        int hand;
+
+        Segment(int maxSize, boolean writeTimes, boolean accessTimes) {
+            // 负载因子不超过0.75
+            int capacity = Integer.highestOneBit(Math.max(8, maxSize + maxSize / 3 + 1) - 1) << 1;
+            this.maxSize = maxSize;
+            this.mask = capacity - 1;
+            this.keys = new long[capacity];
+            this.used = new boolean[capacity];
+            this.referenced = new boolean[capacity];
+            this.writeTimes = writeTimes ? new long[capacity] : null;
+            this.accessTimes = accessTimes ? new long[capacity] : null;
+        }
+
+        abstract void moveValue(int from, int to);
+
+        abstract void clearValue(int index);
+
+        /**
+         * 仅用于加载路径，须持有锁
+         */
+        abstract Object boxedValue(int index);
+
+        abstract void setBoxedValue(int index, Object value);
+
+        /**
+         * 可在乐观读中调用：表长固定，探测次数不超过表长，读到的不一致状态由调用方校验
+         */
+        final int find(long key, long hash) {
+            int index = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                if (!used[index]) {
+                    return -1;
+                }
+                if (keys[index] == key) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        final int insert(long key, long hash) {
+            int index = (int) hash & mask;
+            while (used[index]) {
+                index = (index + 1) & mask;
+            }
+            used[index] = true;
+            keys[index] = key;
+            size++;
+            return index;
+        }
+
+        final void removeAt(int index) {
+            size--;
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                if (!used[next]) {
+                    break;
+                }
+                int home = (int) hash(keys[next]) & mask;
+                // 起始位置不在(index, next]区间内的条目回移至空出的槽位
+                if (((next - home) & mask) >= ((next - index) & mask)) {
+                    move(next, index);
+                    index = next;
+                }
+            }
+            used[index] = false;
+            referenced[index] = false;
+            clearValue(index);
+        }
+
+        final void clear() {
+            for (int i = 0; i <= mask; i++) {
+                if (used[i]) {
+                    used[i] = false;
+                    referenced[i] = false;
+                    clearValue(i);
+                }
+            }
+            size = 0;
+            hand = 0;
+        }
+
+        private void move(int from, int to) {
+            keys[to] = keys[from];
+            referenced[to] = referenced[from];
+            if (writeTimes != null) {
+                writeTimes[to] = writeTimes[from];
+            }
+            if (accessTimes != null) {
+                accessTimes[to] = accessTimes[from];
+            }
+            moveValue(from, to);
+        }
+    }
+}
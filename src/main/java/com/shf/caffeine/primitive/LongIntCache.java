@@ -0,0 +1,120 @@
+package com.shf.caffeine.primitive;
+
+import java.util.function.LongToIntFunction;
+
+/**
+ * description :
+ * long到int的缓存，每个条目仅占用一个long键与一个int值及少量元数据，命中路径不装箱、不分配对象。
+ * 未命中时通过默认值表示，调用方需选择不会作为正常值出现的默认值，或先调用{@link #containsKey(long)}。
+ *
+ * @author agent
+ * @date 2026/10/17 10:38
+ */
+public final class LongIntCache extends AbstractLongCache<LongIntCache.IntSegment> {
+
+    LongIntCache(PrimitiveCacheBuilder builder) {
+        super(builder, IntSegment[]::new, IntSegment::new);
+    }
+
+    public int getIfPresent(long key, int defaultValue) {
+        return read(key, defaultValue, null);
+    }
+
+    /**
+     * 未命中时在锁外调用loader，同一key的并发未命中只加载一次；加载期间同一分段的读写均不受影响
+     */
+    public int get(long key, LongToIntFunction loader) {
+        return read(key, 0, loader);
+    }
+
+    public boolean containsKey(long key) {
+        long hash = hash(key);
+        IntSegment segment = segmentFor(hash);
+        long now = now();
+        long stamp = segment.lock.tryOptimisticRead();
+        boolean live = isLive(segment, segment.find(key, hash), now);
+        if (!segment.lock.validate(stamp)) {
+            stamp = segment.lock.readLock();
+            try {
+                live = isLive(segment, segment.find(key, hash), now);
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return live;
+    }
+
+    public void put(long key, int value) {
+        long hash = hash(key);
+        IntSegment segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            segment.values[acquireSlot(segment, key, hash, now())] = value;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    private int read(long key, int defaultValue, LongToIntFunction loader) {
+        long hash = hash(key);
+        IntSegment segment = segmentFor(hash);
+        long now = now();
+        long stamp = segment.lock.tryOptimisticRead();
+        int index = segment.find(key, hash);
+        boolean live = isLive(segment, index, now);
+        int value = live ? segment.values[index] : 0;
+        if (!segment.lock.validate(stamp)) {
+            stamp = segment.lock.readLock();
+            try {
+                index = segment.find(key, hash);
+                live = isLive(segment, index, now);
+                value = live ? segment.values[index] : 0;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        if (live) {
+            onHit(segment, key, hash, index, now);
+            return value;
+        }
+        return loader == null ? miss(defaultValue) : load(segment, key, hash, loader);
+    }
+
+    private int miss(int defaultValue) {
+        onMiss();
+        return defaultValue;
+    }
+
+    private int load(IntSegment segment, long key, long hash, LongToIntFunction loader) {
+        return (Integer) loadValue(segment, key, hash, loader::applyAsInt);
+    }
+
+    static final class IntSegment extends Segment {
+        final int[] values;
+
+        IntSegment(int maxSize, boolean writeTimes, boolean accessTimes) {
+            super(maxSize, writeTimes, accessTimes);
+            this.values = new int[mask + 1];
+        }
+
+        @Override
+        void moveValue(int from, int to) {
+            values[to] = values[from];
+        }
+
+        @Override
+        void clearValue(int index) {
+            values[index] = 0;
+        }
+
+        @Override
+        Object boxedValue(int index) {
+            return values[index];
+        }
+
+        @Override
+        void setBoxedValue(int index, Object value) {
+            values[index] = (Integer) value;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.shf.caffeine.primitive;
+
+import java.util.Objects;
+import java.util.function.LongFunction;
+
+/**
+ * description :
+ * long键、对象值的缓存，省去键的装箱与Caffeine节点对象，命中路径不分配对象。
+ * 与{@link com.github.benmanes.caffeine.cache.Cache}一致，值不可为null，加载结果为null时不缓存。
+ *
+ * @author agent
+ * @date 2026/10/17 10:38
+ */
+public final class LongObjectCache<V> extends AbstractLongCache<LongObjectCache.ObjectSegment> {
+
+    LongObjectCache(PrimitiveCacheBuilder builder) {
+        super(builder, ObjectSegment[]::new, ObjectSegment::new);
+    }
+
+    public V getIfPresent(long key) {
+        return read(key, null);
+    }
+
+    /**
+     * 未命中时在锁外调用loader，同一key的并发未命中只加载一次；加载期间同一分段的读写均不受影响
+     */
+    public V get(long key, LongFunction<? extends V> loader) {
+        return read(key, Objects.requireNonNull(loader));
+    }
+
+    public void put(long key, V value) {
+        Objects.requireNonNull(value);
+        long hash = hash(key);
+        ObjectSegment segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            segment.values[acquireSlot(segment, key, hash, now())] = value;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V read(long key, LongFunction<? extends V> loader) {
+        long hash = hash(key);
+        ObjectSegment segment = segmentFor(hash);
+        long now = now();
+        long stamp = segment.lock.tryOptimisticRead();
+        int index = segment.find(key, hash);
+        Object value = isLive(segment, index, now) ? segment.values[index] : null;
+        if (!segment.lock.validate(stamp)) {
+            stamp = segment.lock.readLock();
+            try {
+                index = segment.find(key, hash);
+                value = isLive(segment, index, now) ? segment.values[index] : null;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        if (value != null) {
+            onHit(segment, key, hash, index, now);
+            return (V) value;
+        }
+        if (loader == null) {
+            onMiss();
+            return null;
+        }
+        return load(segment, key, hash, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V load(ObjectSegment segment, long key, long hash, LongFunction<? extends V> loader) {
+        return (V) loadValue(segment, key, hash, loader);
+    }
+
+    static final class ObjectSegment extends Segment {
+        final Object[] values;
+
+        ObjectSegment(int maxSize, boolean writeTimes, boolean accessTimes) {
+            super(maxSize, writeTimes, accessTimes);
+            this.values = new Object[mask + 1];
+        }
+
+        @Override
+        void moveValue(int from, int to) {
+            values[to] = values[from];
+        }
+
+        @Override
+        void clearValue(int index) {
+            values[index] = null;
+        }
+
+        @Override
+        Object boxedValue(int index) {
+            return values[index];
+        }
+
+        @Override
+        void setBoxedValue(int index, Object value) {
+            values[index] = value;
+        }
+    }
+}
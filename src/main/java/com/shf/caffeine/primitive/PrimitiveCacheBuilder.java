@@ -0,0 +1,104 @@
+package com.shf.caffeine.primitive;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * 原始类型缓存的构建器，选项与{@link com.github.benmanes.caffeine.cache.Caffeine}保持一致：
+ * maximumSize为必填项，哈希表按容量一次性分配，运行期间不扩容；expireAfterWrite与expireAfterAccess可同时设置。
+ * maximumSize按分段均分为各分段的上限，总条目数不超过maximumSize，但单个分段满时即开始淘汰。
+ * <pre>
+ * LongLongCache cache = PrimitiveCacheBuilder.newBuilder()
+ *         .maximumSize(100_000)
+ *         .expireAfterWrite(5, TimeUnit.MINUTES)
+ *         .recordStats()
+ *         .buildLongLong();
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:38
+ */
+public final class PrimitiveCacheBuilder {
+    long maximumSize = -1;
+    long expireAfterWriteNanos = -1;
+    long expireAfterAccessNanos = -1;
+    int concurrencyLevel = 16;
+    Ticker ticker = Ticker.systemTicker();
+    boolean recordStats;
+
+    private PrimitiveCacheBuilder() {
+    }
+
+    public static PrimitiveCacheBuilder newBuilder() {
+        return new PrimitiveCacheBuilder();
+    }
+
+    public PrimitiveCacheBuilder maximumSize(long maximumSize) {
+        if (maximumSize < 1 || maximumSize > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("maximumSize must be in [1, " + Integer.MAX_VALUE / 2 + "]");
+        }
+        this.maximumSize = maximumSize;
+        return this;
+    }
+
+    public PrimitiveCacheBuilder expireAfterWrite(long duration, TimeUnit unit) {
+        this.expireAfterWriteNanos = checkDuration(duration, unit);
+        return this;
+    }
+
+    public PrimitiveCacheBuilder expireAfterAccess(long duration, TimeUnit unit) {
+        this.expireAfterAccessNanos = checkDuration(duration, unit);
+        return this;
+    }
+
+    /**
+     * @param concurrencyLevel 分段数，向下取2的幂且不超过maximumSize，每个分段独立加锁
+     */
+    public PrimitiveCacheBuilder concurrencyLevel(int concurrencyLevel) {
+        if (concurrencyLevel < 1) {
+            throw new IllegalArgumentException("concurrencyLevel must be positive");
+        }
+        this.concurrencyLevel = concurrencyLevel;
+        return this;
+    }
+
+    public PrimitiveCacheBuilder ticker(Ticker ticker) {
+        this.ticker = ticker;
+        return this;
+    }
+
+    public PrimitiveCacheBuilder recordStats() {
+        this.recordStats = true;
+        return this;
+    }
+
+    public LongLongCache buildLongLong() {
+        checkMaximumSize();
+        return new LongLongCache(this);
+    }
+
+    public LongIntCache buildLongInt() {
+        checkMaximumSize();
+        return new LongIntCache(this);
+    }
+
+    public <V> LongObjectCache<V> buildLongObject() {
+        checkMaximumSize();
+        return new LongObjectCache<>(this);
+    }
+
+    private void checkMaximumSize() {
+        if (maximumSize < 0) {
+            throw new IllegalStateException("maximumSize is required");
+        }
+    }
+
+    private static long checkDuration(long duration, TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration cannot be negative");
+        }
+        return unit.toNanos(duration);
+    }
+}
@@ -0,0 +1,160 @@
+package com.shf.caffeine.refresh;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.shf.caffeine.scheduler.HashedTimingWheel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * description :
+ * 主动预刷新：{@code Sample#refreshAfterWriteTest}中刷新需等到期后被读取才触发，首个读者必然拿到旧值。
+ * 本类在条目加载或写入时向{@link HashedTimingWheel}登记，在刷新截止时间前lead时长检查该key：
+ * 1、截止前被访问次数达到hotThreshold的热点key，调用{@link LoadingCache#refresh}异步刷新并登记下一周期；
+ * 2、访问次数不足的冷key不刷新并停止跟踪，再次访问时重新登记；
+ * 3、已被驱逐或失效的key直接停止跟踪。
+ * 热点key因此始终保持新鲜，而冷key不产生额外的后端调用。
+ * <pre>
+ * HashedTimingWheel wheel = new HashedTimingWheel("refresh-ahead", 100, TimeUnit.MILLISECONDS, 512);
+ * RefreshAheadCache&lt;String, String&gt; cache = new RefreshAheadCache&lt;&gt;(
+ *         Caffeine.newBuilder().maximumSize(100).recordStats(), this::getValue,
+ *         5, 1, TimeUnit.SECONDS, 3, wheel);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:22
+ */
+public class RefreshAheadCache<K, V> {
+    private final LoadingCache<K, V> cache;
+    private final HashedTimingWheel wheel;
+    private final long checkDelayNanos;
+    private final int hotThreshold;
+    private final ConcurrentMap<K, Tracker> trackers = new ConcurrentHashMap<>();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder coldSkipCount = new LongAdder();
+
+    /**
+     * @param builder         其余构建选项
+     * @param loader          加载函数
+     * @param refreshInterval 刷新周期
+     * @param lead            提前量，在周期结束前该时长检查并刷新
+     * @param unit            时间单位
+     * @param hotThreshold    一个周期内至少被访问多少次才视为热点
+     * @param wheel           时间轮，可在多个缓存间共享
+     */
+    public RefreshAheadCache(Caffeine<Object, Object> builder, CacheLoader<K, V> loader, long refreshInterval,
+                             long lead, TimeUnit unit, int hotThreshold, HashedTimingWheel wheel) {
+        if (lead < 0 || lead >= refreshInterval) {
+            throw new IllegalArgumentException("lead must be in [0, refreshInterval)");
+        }
+        this.cache = builder.build(loader);
+        this.wheel = wheel;
+        this.checkDelayNanos = unit.toNanos(refreshInterval - lead);
+        this.hotThreshold = hotThreshold;
+    }
+
+    public V get(K key) {
+        V value = cache.get(key);
+        if (value != null) {
+            track(key);
+        }
+        return value;
+    }
+
+    public V getIfPresent(K key) {
+        V value = cache.getIfPresent(key);
+        if (value != null) {
+            track(key);
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, value);
+        track(key);
+    }
+
+    public void invalidate(K key) {
+        Tracker tracker = trackers.remove(key);
+        if (tracker != null) {
+            // 跟踪器先发布再登记定时任务，此时timeout可能尚未赋值；未取消的任务由check发现跟踪器已移除后退出
+            HashedTimingWheel.Timeout timeout = tracker.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+        cache.invalidate(key);
+    }
+
+    public LoadingCache<K, V> delegate() {
+        return cache;
+    }
+
+    /**
+     * @return 预刷新次数
+     */
+    public long refreshCount() {
+        return refreshCount.sum();
+    }
+
+    /**
+     * @return 因访问不足而跳过刷新的次数
+     */
+    public long coldSkipCount() {
+        return coldSkipCount.sum();
+    }
+
+    /**
+     * @return 当前被跟踪的key数量
+     */
+    public int trackedSize() {
+        return trackers.size();
+    }
+
+    private void track(K key) {
+        Tracker tracker = trackers.get(key);
+        if (tracker != null) {
+            tracker.accesses.incrementAndGet();
+            return;
+        }
+        Tracker created = new Tracker();
+        tracker = trackers.putIfAbsent(key, created);
+        if (tracker != null) {
+            tracker.accesses.incrementAndGet();
+        } else {
+            schedule(key, created);
+        }
+    }
+
+    private void schedule(K key, Tracker tracker) {
+        tracker.timeout = wheel.schedule(() -> check(key, tracker), checkDelayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void check(K key, Tracker tracker) {
+        if (trackers.get(key) != tracker) {
+            return;
+        }
+        if (!cache.asMap().containsKey(key)) {
+            trackers.remove(key, tracker);
+            return;
+        }
+        if (tracker.accesses.getAndSet(0) < hotThreshold) {
+            coldSkipCount.increment();
+            trackers.remove(key, tracker);
+            return;
+        }
+        refreshCount.increment();
+        cache.refresh(key);
+        schedule(key, tracker);
+    }
+
+    private static final class Tracker {
+        final AtomicInteger accesses = new AtomicInteger(1);
+        volatile HashedTimingWheel.Timeout timeout;
+    }
+}
@@ -0,0 +1,136 @@
+package com.shf.caffeine.refresh;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.shf.caffeine.stats.LatencyHistogram;
+import com.shf.caffeine.stats.LatencySnapshot;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * description :
+ * stale-while-revalidate与stale-if-error：在{@code Sample#refreshAfterWriteTest}的基础上增加陈旧度上限与指标。
+ * 1、写入后freshDuration内为新鲜期，直接返回；
+ * 2、超过新鲜期后读取仍立即返回旧值，同时由refreshAfterWrite在executor上异步刷新，不阻塞调用线程；
+ * 3、刷新失败时保留旧值继续服务，直至写入后超过maxStaleDuration被expireAfterWrite驱逐，此后的读取才会同步加载；
+ * 4、记录新鲜/陈旧返回次数、陈旧程度(超出新鲜期的时长)分布及刷新失败次数。
+ * <pre>
+ * StaleWhileRevalidateCache&lt;String, String&gt; cache = new StaleWhileRevalidateCache&lt;&gt;(
+ *         Caffeine.newBuilder().maximumSize(100).recordStats(), this::getValue,
+ *         5, 60, TimeUnit.SECONDS);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:20
+ */
+public class StaleWhileRevalidateCache<K, V> {
+    private final LoadingCache<K, V> cache;
+    private final Policy.Expiration<K, V> expiration;
+    private final long freshNanos;
+    private final LongAdder freshCount = new LongAdder();
+    private final LongAdder staleCount = new LongAdder();
+    private final LongAdder refreshFailureCount = new LongAdder();
+    private final LatencyHistogram staleness = new LatencyHistogram();
+
+    /**
+     * @param builder  其余构建选项，不可再设置refreshAfterWrite与expireAfterWrite
+     * @param loader   加载函数
+     * @param fresh    新鲜期
+     * @param maxStale 最大陈旧期，须大于新鲜期
+     * @param unit     时间单位
+     */
+    public StaleWhileRevalidateCache(Caffeine<Object, Object> builder, CacheLoader<K, V> loader,
+                                     long fresh, long maxStale, TimeUnit unit) {
+        if (maxStale <= fresh) {
+            throw new IllegalArgumentException("maxStale must be greater than fresh");
+        }
+        this.freshNanos = unit.toNanos(fresh);
+        this.cache = builder
+                .refreshAfterWrite(fresh, unit)
+                .expireAfterWrite(maxStale, unit)
+                .build(new CacheLoader<K, V>() {
+                    @Override
+                    public V load(K key) throws Exception {
+                        return loader.load(key);
+                    }
+
+                    @Override
+                    public V reload(K key, V oldValue) throws Exception {
+                        try {
+                            return loader.reload(key, oldValue);
+                        } catch (Exception e) {
+                            refreshFailureCount.increment();
+                            throw e;
+                        }
+                    }
+                });
+        this.expiration = cache.policy().expireAfterWrite()
+                .orElseThrow(() -> new IllegalStateException("expireAfterWrite is required"));
+    }
+
+    public V get(K key) {
+        // 读取前获取写入时长，读取可能触发刷新并重置写入时间
+        OptionalLong age = expiration.ageOf(key, TimeUnit.NANOSECONDS);
+        V value = cache.get(key);
+        if (value != null) {
+            record(age);
+        }
+        return value;
+    }
+
+    public V getIfPresent(K key) {
+        OptionalLong age = expiration.ageOf(key, TimeUnit.NANOSECONDS);
+        V value = cache.getIfPresent(key);
+        if (value != null) {
+            record(age);
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    public LoadingCache<K, V> delegate() {
+        return cache;
+    }
+
+    private void record(OptionalLong age) {
+        if (age.isPresent() && age.getAsLong() > freshNanos) {
+            staleCount.increment();
+            staleness.record(age.getAsLong() - freshNanos);
+        } else {
+            freshCount.increment();
+        }
+    }
+
+    public long freshCount() {
+        return freshCount.sum();
+    }
+
+    /**
+     * @return 返回陈旧值的次数
+     */
+    public long staleCount() {
+        return staleCount.sum();
+    }
+
+    public long refreshFailureCount() {
+        return refreshFailureCount.sum();
+    }
+
+    /**
+     * @return 陈旧值超出新鲜期的时长分布，单位纳秒
+     */
+    public LatencySnapshot staleness() {
+        return staleness.snapshot();
+    }
+}
@@ -0,0 +1,16 @@
+package com.shf.caffeine.removal;
+
+import java.util.List;
+
+/**
+ * description :
+ * 批量接收移除通知，由{@link BatchingRemovalListener}的单个投递线程调用，批内顺序即入队顺序
+ *
+ * @author agent
+ * @date 2026/10/17 10:58
+ */
+@FunctionalInterface
+public interface BatchRemovalListener<K, V> {
+
+    void onRemovals(List<RemovalEvent<K, V>> events);
+}
@@ -0,0 +1,237 @@
+package com.shf.caffeine.removal;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * description :
+ * 批量投递的移除监听器：{@link #onRemoval}只把通知放入有界的多生产者单消费者环形队列，
+ * 由单个投递线程攒批后调用{@link BatchRemovalListener}，取代每个通知一个executor任务的方式。
+ * 1、批次在达到maxBatchSize或等待linger后投递，批内及批间顺序均为入队顺序；
+ * 2、队列满载时按{@link OverflowPolicy}处理，并导出队列深度、历史最大深度与丢弃数；
+ * 3、投递线程只有一个，监听器抛出的异常记录日志后继续投递后续批次。
+ * Caffeine默认在executor中为每个通知提交一个任务，为避免任务堆积应让入队在触发线程内同步完成：
+ * 作为evictionListener注册时在条目锁内同步调用，同一key的淘汰通知严格有序；
+ * 作为removalListener注册时需同时设置executor(Runnable::run)，此时仅并发写同一key的通知之间可能交错。
+ * BLOCK策略下监听器内不可再操作同一缓存，否则投递线程阻塞于入队将导致死锁。
+ * <pre>
+ * BatchingRemovalListener&lt;String, String&gt; listener = new BatchingRemovalListener&lt;&gt;(
+ *         events -&gt; log.info("removed {} entries", events.size()),
+ *         65_536, 1_024, 10, TimeUnit.MILLISECONDS, OverflowPolicy.DROP, 1);
+ * Cache&lt;String, String&gt; cache = Caffeine.newBuilder()
+ *         .maximumSize(10_000)
+ *         .evictionListener(listener)
+ *         .build();
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:58
+ */
+@Slf4j
+public class BatchingRemovalListener<K, V> implements RemovalListener<K, V>, AutoCloseable {
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final BatchRemovalListener<K, V> delegate;
+    private final MpscRingBuffer<RemovalEvent<K, V>> queue;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int sampleThreshold;
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    private final AtomicInteger activeProducers = new AtomicInteger();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder listenerFailureCount = new LongAdder();
+
+    /**
+     * @param delegate       批量监听器
+     * @param capacity       队列容量，向上取2的幂
+     * @param maxBatchSize   单批最大通知数
+     * @param linger         队列未攒满一批时的最长等待时间
+     * @param unit           时间单位
+     * @param overflowPolicy 满载策略
+     * @param sampleRate     SAMPLE策略下每sampleRate个通知保留1个
+     */
+    public BatchingRemovalListener(BatchRemovalListener<K, V> delegate, int capacity, int maxBatchSize,
+                                   long linger, TimeUnit unit, OverflowPolicy overflowPolicy, int sampleRate) {
+        this.delegate = delegate;
+        this.queue = new MpscRingBuffer<>(capacity);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerNanos = Math.max(1, unit.toNanos(linger));
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.sampleThreshold = queue.capacity() / 4 * 3;
+        this.consumer = new Thread(this::deliverLoop, "removal-listener-batcher");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void onRemoval(K key, V value, RemovalCause cause) {
+        // 先登记再检查running，close据此等待已通过检查的入队完成
+        activeProducers.incrementAndGet();
+        try {
+            if (!running) {
+                droppedCount.increment();
+                return;
+            }
+            enqueue(new RemovalEvent<>(key, value, cause));
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    /**
+     * 停止投递线程，已入队及关闭期间完成入队的通知在返回前全部投递，关闭后到达或无法入队的通知计为丢弃。
+     * 等待投递线程退出时被中断不会跳过剩余通知的投递，返回前恢复中断标记。
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                consumer.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        // 已通过检查的生产者入队或丢弃后再投递剩余通知
+        while (activeProducers.get() > 0) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        List<RemovalEvent<K, V>> batch = new ArrayList<>(maxBatchSize);
+        RemovalEvent<K, V> event;
+        while ((event = queue.poll()) != null) {
+            batch.add(event);
+            if (batch.size() == maxBatchSize) {
+                deliver(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            deliver(batch);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public long maxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public int capacity() {
+        return queue.capacity();
+    }
+
+    public long deliveredCount() {
+        return deliveredCount.sum();
+    }
+
+    /**
+     * @return 因队列满载或采样被丢弃的通知数
+     */
+    public long droppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long batchCount() {
+        return batchCount.sum();
+    }
+
+    public long listenerFailureCount() {
+        return listenerFailureCount.sum();
+    }
+
+    private void deliverLoop() {
+        List<RemovalEvent<K, V>> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            boolean stopping = !running;
+            RemovalEvent<K, V> event;
+            while (batch.size() < maxBatchSize && (event = queue.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                if (stopping && queue.size() == 0) {
+                    return;
+                }
+                LockSupport.parkNanos(this, lingerNanos);
+                continue;
+            }
+            if (batch.size() < maxBatchSize && !stopping) {
+                // 未攒满一批时再等待一次linger，减少低流量下的小批次
+                LockSupport.parkNanos(this, lingerNanos);
+                while (batch.size() < maxBatchSize && (event = queue.poll()) != null) {
+                    batch.add(event);
+                }
+            }
+            deliver(batch);
+            batch = new ArrayList<>(maxBatchSize);
+        }
+    }
+
+    private void deliver(List<RemovalEvent<K, V>> batch) {
+        try {
+            delegate.onRemovals(batch);
+            deliveredCount.add(batch.size());
+        } catch (RuntimeException e) {
+            listenerFailureCount.increment();
+            log.warn("removal listener failed on a batch of {} events", batch.size(), e);
+        } finally {
+            batchCount.increment();
+        }
+    }
+
+    private void enqueue(RemovalEvent<K, V> event) {
+        if (overflowPolicy == OverflowPolicy.SAMPLE && queue.size() >= sampleThreshold
+                && sampleCounter.getAndIncrement() % sampleRate != 0) {
+            droppedCount.increment();
+            return;
+        }
+        while (!queue.offer(event)) {
+            // 关闭后投递线程不再消费，BLOCK策略下也不再等待
+            if (overflowPolicy != OverflowPolicy.BLOCK || !running) {
+                droppedCount.increment();
+                return;
+            }
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        int depth = queue.size();
+        updateMaxDepth(depth);
+        if (depth >= maxBatchSize) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void updateMaxDepth(long depth) {
+        long current;
+        while (depth > (current = maxQueueDepth.get())) {
+            if (maxQueueDepth.compareAndSet(current, depth)) {
+                return;
+            }
+        }
+    }
+}
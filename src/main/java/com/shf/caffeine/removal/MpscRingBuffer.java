@@ -0,0 +1,66 @@
+package com.shf.caffeine.removal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * description :
+ * 有界的多生产者单消费者环形队列：生产者以CAS抢占尾部序号后写入槽位，消费者按序读取并清空槽位。
+ * 槽位为null说明对应生产者已抢占序号但尚未写入，消费者在此停下，保证按抢占顺序出队。
+ *
+ * @author agent
+ * @date 2026/10/17 10:58
+ */
+final class MpscRingBuffer<E> {
+    private final AtomicReferenceArray<E> buffer;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.capacity = size;
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return 队列已满时返回false
+     */
+    boolean offer(E element) {
+        while (true) {
+            long current = tail.get();
+            if (current - head.get() >= capacity) {
+                return false;
+            }
+            if (tail.compareAndSet(current, current + 1)) {
+                buffer.lazySet((int) current & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 仅限消费者线程调用
+     */
+    E poll() {
+        long current = head.get();
+        int index = (int) current & mask;
+        E element = buffer.get(index);
+        if (element == null) {
+            return null;
+        }
+        buffer.lazySet(index, null);
+        head.lazySet(current + 1);
+        return element;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
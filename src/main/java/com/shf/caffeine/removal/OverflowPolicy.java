@@ -0,0 +1,23 @@
+package com.shf.caffeine.removal;
+
+/**
+ * description :
+ * 移除通知队列满载时的处理策略
+ *
+ * @author agent
+ * @date 2026/10/17 10:58
+ */
+public enum OverflowPolicy {
+    /**
+     * 入队方等待至有空位，通知不丢失，但会拖慢触发移除的写入与维护线程
+     */
+    BLOCK,
+    /**
+     * 丢弃新通知
+     */
+    DROP,
+    /**
+     * 队列超过3/4时按采样率保留通知，其余丢弃，满载时全部丢弃；用于只需统计分布的监听器
+     */
+    SAMPLE
+}
@@ -0,0 +1,43 @@
+package com.shf.caffeine.removal;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+/**
+ * description :
+ * 一次移除通知，key与value在弱引用/软引用被回收时可能为null
+ *
+ * @author agent
+ * @date 2026/10/17 10:58
+ */
+public final class RemovalEvent<K, V> {
+    private final K key;
+    private final V value;
+    private final RemovalCause cause;
+
+    public RemovalEvent(K key, V value, RemovalCause cause) {
+        this.key = key;
+        this.value = value;
+        this.cause = cause;
+    }
+
+    public K key() {
+        return key;
+    }
+
+    public V value() {
+        return value;
+    }
+
+    public RemovalCause cause() {
+        return cause;
+    }
+
+    public boolean wasEvicted() {
+        return cause.wasEvicted();
+    }
+
+    @Override
+    public String toString() {
+        return "RemovalEvent{key=" + key + ", value=" + value + ", cause=" + cause + '}';
+    }
+}
@@ -0,0 +1,133 @@
+package com.shf.caffeine.resilience;
+
+import com.shf.caffeine.stats.LatencyHistogram;
+import com.shf.caffeine.stats.LatencySnapshot;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * description :
+ * 舱壁：限制同时进行的加载数，防止冷缓存上的大量未命中耗尽后端连接池。
+ * 1、在途加载达到maxConcurrent后，后续请求按到达顺序排队，最多等待maxWait；
+ * 2、排队数达到maxQueueDepth时新请求立即拒绝，maxWait为0时不排队直接拒绝；
+ * 3、导出当前排队数、排队等待时间分布及拒绝次数。
+ *
+ * @author agent
+ * @date 2026/10/17 10:27
+ */
+public class Bulkhead {
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueueDepth;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+
+    /**
+     * @param name          名称，用于异常信息与指标
+     * @param maxConcurrent 最大在途加载数
+     * @param maxQueueDepth 最大排队数
+     * @param maxWait       最长排队时间
+     * @param unit          时间单位
+     */
+    public Bulkhead(String name, int maxConcurrent, int maxQueueDepth, long maxWait, TimeUnit unit) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueueDepth = Math.max(0, maxQueueDepth);
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * 获取许可，成功后必须调用{@link #release()}
+     *
+     * @throws BulkheadFullException 排队已满或等待超时
+     */
+    public void acquire() {
+        // 无参tryAcquire会无视公平性插队，超时为0的tryAcquire在已有排队者时让其先行
+        if (tryAcquireNow()) {
+            waitTime.record(0);
+            return;
+        }
+        if (maxWaitNanos <= 0) {
+            rejectedCount.increment();
+            throw new BulkheadFullException(name);
+        }
+        if (queueDepth.incrementAndGet() > maxQueueDepth) {
+            queueDepth.decrementAndGet();
+            rejectedCount.increment();
+            throw new BulkheadFullException(name);
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+        waitTime.record(System.nanoTime() - start);
+        if (!acquired) {
+            rejectedCount.increment();
+            throw new BulkheadFullException(name);
+        }
+    }
+
+    private boolean tryAcquireNow() {
+        try {
+            return permits.tryAcquire(0, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return 当前在途加载数
+     */
+    public int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * @return 当前排队数
+     */
+    public int queueDepth() {
+        return queueDepth.get();
+    }
+
+    public long rejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * @return 获取许可的等待时间分布，单位纳秒，立即获得许可的记为0
+     */
+    public LatencySnapshot waitTime() {
+        return waitTime.snapshot();
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead{name=" + name + ", inFlight=" + inFlight() + ", queueDepth=" + queueDepth()
+                + ", rejected=" + rejectedCount() + ", wait=[" + waitTime() + "]}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.shf.caffeine.resilience;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import java.util.Map;
+
+/**
+ * description :
+ * 为加载函数增加舱壁，限制单个缓存同时访问后端的加载数，超出部分排队或快速失败。
+ * 可与{@link CircuitBreakerCacheLoader}叠加使用，舱壁置于内层，避免被熔断短路的请求占用许可。
+ * <pre>
+ * Bulkhead bulkhead = new Bulkhead("sample", 32, 256, 100, TimeUnit.MILLISECONDS);
+ * LoadingCache&lt;String, String&gt; cache = Caffeine.newBuilder()
+ *         .maximumSize(100)
+ *         .recordStats()
+ *         .build(new BulkheadCacheLoader&lt;&gt;(this::getValue, bulkhead));
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:27
+ */
+public class BulkheadCacheLoader<K, V> implements CacheLoader<K, V> {
+    private final CacheLoader<K, V> delegate;
+    private final Bulkhead bulkhead;
+
+    public BulkheadCacheLoader(CacheLoader<K, V> delegate, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+        bulkhead.acquire();
+        try {
+            return delegate.load(key);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+        bulkhead.acquire();
+        try {
+            return delegate.loadAll(keys);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    @Override
+    public V reload(K key, V oldValue) throws Exception {
+        bulkhead.acquire();
+        try {
+            return delegate.reload(key, oldValue);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public Bulkhead bulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,16 @@
+package com.shf.caffeine.resilience;
+
+/**
+ * description :
+ * 舱壁已满，加载被拒绝，缓存按加载失败处理且不写入
+ *
+ * @author agent
+ * @date 2026/10/17 10:27
+ */
+public class BulkheadFullException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadFullException(String name) {
+        super("bulkhead [" + name + "] is full");
+    }
+}
@@ -0,0 +1,256 @@
+package com.shf.caffeine.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * description :
+ * 基于计数滑动窗口的熔断器：
+ * 1、CLOSED：记录最近slidingWindowSize次调用，调用数达到minimumCalls且失败率达到阈值时转为OPEN；
+ * 2、OPEN：拒绝全部调用，持续openDuration后转为HALF_OPEN；连续多次熔断时持续时间按指数退避，直至maxOpenDuration；
+ * 3、HALF_OPEN：仅放行halfOpenProbes个探测调用，全部成功则恢复CLOSED，任一失败则再次OPEN。
+ * 状态变更频率很低且只发生在未命中加载路径上，故采用同步方法实现。
+ * <pre>
+ * CircuitBreaker breaker = CircuitBreaker.builder()
+ *         .failureRateThreshold(0.5)
+ *         .slidingWindowSize(20)
+ *         .openDuration(1, TimeUnit.SECONDS)
+ *         .maxOpenDuration(30, TimeUnit.SECONDS)
+ *         .build();
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:26
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long baseOpenNanos;
+    private final long maxOpenNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier ticker;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openUntil;
+    private int consecutiveOpens;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    private long rejectedCount;
+    private long openCount;
+
+    private CircuitBreaker(Builder builder) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.minimumCalls = Math.min(builder.minimumCalls, builder.slidingWindowSize);
+        this.baseOpenNanos = builder.openNanos;
+        this.maxOpenNanos = Math.max(builder.maxOpenNanos, builder.openNanos);
+        this.halfOpenProbes = builder.halfOpenProbes;
+        this.ticker = builder.ticker;
+        this.window = new boolean[builder.slidingWindowSize];
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 是否允许本次调用，允许时调用方必须随后调用{@link #onSuccess()}或{@link #onFailure()}
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (ticker.getAsLong() - openUntil < 0) {
+                rejectedCount++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                rejectedCount++;
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probeSuccesses >= halfOpenProbes) {
+                state = State.CLOSED;
+                consecutiveOpens = 0;
+                resetWindow();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (windowCalls >= minimumCalls && (double) windowFailures / windowCalls >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && ticker.getAsLong() - openUntil >= 0) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * @return 当前窗口内的失败率
+     */
+    public synchronized double failureRate() {
+        return windowCalls == 0 ? 0 : (double) windowFailures / windowCalls;
+    }
+
+    /**
+     * @return 被短路拒绝的调用数
+     */
+    public synchronized long rejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * @return 累计熔断次数
+     */
+    public synchronized long openCount() {
+        return openCount;
+    }
+
+    /**
+     * @return 当前或最近一次熔断的持续时长，单位纳秒
+     */
+    public synchronized long currentOpenNanos() {
+        return openDuration(Math.max(1, consecutiveOpens));
+    }
+
+    private void open() {
+        consecutiveOpens++;
+        openCount++;
+        state = State.OPEN;
+        openUntil = ticker.getAsLong() + openDuration(consecutiveOpens);
+        resetWindow();
+    }
+
+    private long openDuration(int opens) {
+        long duration = baseOpenNanos;
+        for (int i = 1; i < opens && duration < maxOpenNanos; i++) {
+            duration = duration > maxOpenNanos / 2 ? maxOpenNanos : duration << 1;
+        }
+        return Math.min(duration, maxOpenNanos);
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{state=" + state() + ", failureRate=" + failureRate()
+                + ", rejected=" + rejectedCount() + ", opened=" + openCount() + '}';
+    }
+
+    public static final class Builder {
+        private double failureRateThreshold = 0.5;
+        private int slidingWindowSize = 100;
+        private int minimumCalls = 10;
+        private long openNanos = TimeUnit.SECONDS.toNanos(1);
+        private long maxOpenNanos = TimeUnit.SECONDS.toNanos(60);
+        private int halfOpenProbes = 1;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {
+        }
+
+        /**
+         * @param threshold 熔断的失败率阈值，取值(0, 1]
+         */
+        public Builder failureRateThreshold(double threshold) {
+            if (threshold <= 0 || threshold > 1) {
+                throw new IllegalArgumentException("threshold must be in (0, 1]");
+            }
+            this.failureRateThreshold = threshold;
+            return this;
+        }
+
+        public Builder slidingWindowSize(int size) {
+            if (size < 1) {
+                throw new IllegalArgumentException("size must be positive");
+            }
+            this.slidingWindowSize = size;
+            return this;
+        }
+
+        /**
+         * @param calls 窗口内至少有多少次调用才计算失败率
+         */
+        public Builder minimumCalls(int calls) {
+            this.minimumCalls = Math.max(1, calls);
+            return this;
+        }
+
+        /**
+         * @param duration 首次熔断的持续时间，此后连续熔断逐次翻倍
+         */
+        public Builder openDuration(long duration, TimeUnit unit) {
+            this.openNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public Builder maxOpenDuration(long duration, TimeUnit unit) {
+            this.maxOpenNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public Builder halfOpenProbes(int probes) {
+            this.halfOpenProbes = Math.max(1, probes);
+            return this;
+        }
+
+        public Builder ticker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.shf.caffeine.resilience;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * description :
+ * 为加载函数增加熔断：{@code Sample#getTest2}中每次未命中都会访问后端，后端故障期间失败请求持续堆积。
+ * 熔断打开后未命中直接抛出{@link CircuitBreakerOpenException}而不访问后端，半开时仅放行少量探测加载。
+ * 可按key前缀等维度划分熔断器，使某一分区的故障不影响其他分区。
+ * 返回null视为成功(数据不存在)，仅异常计为失败。
+ * loadAll与reload同样经过熔断器转发给被包装的加载器，保留其批量加载与自定义刷新逻辑；
+ * loadAll按分区拆分为多次批量调用，每个分区各计一次调用结果，任一分区熔断时整批失败。
+ * <pre>
+ * LoadingCache&lt;String, String&gt; cache = Caffeine.newBuilder()
+ *         .maximumSize(100)
+ *         .recordStats()
+ *         .build(CircuitBreakerCacheLoader.partitioned(this::getValue,
+ *                 key -&gt; key.substring(0, key.indexOf('_')),
+ *                 () -&gt; CircuitBreaker.builder().failureRateThreshold(0.5).build()));
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:26
+ */
+public class CircuitBreakerCacheLoader<K, V> implements CacheLoader<K, V> {
+    private static final String DEFAULT_PARTITION = "default";
+
+    private final CacheLoader<K, V> delegate;
+    private final Function<? super K, String> partitioner;
+    private final Supplier<CircuitBreaker> factory;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private CircuitBreakerCacheLoader(CacheLoader<K, V> delegate, Function<? super K, String> partitioner,
+                                      Supplier<CircuitBreaker> factory) {
+        this.delegate = delegate;
+        this.partitioner = partitioner;
+        this.factory = factory;
+    }
+
+    /**
+     * 整个缓存共用一个熔断器
+     */
+    public static <K, V> CircuitBreakerCacheLoader<K, V> of(CacheLoader<K, V> delegate, CircuitBreaker breaker) {
+        return new CircuitBreakerCacheLoader<>(delegate, key -> DEFAULT_PARTITION, () -> breaker);
+    }
+
+    /**
+     * @param partitioner 计算key所属分区，如key前缀
+     * @param factory     为每个分区创建熔断器
+     */
+    public static <K, V> CircuitBreakerCacheLoader<K, V> partitioned(CacheLoader<K, V> delegate,
+                                                                     Function<? super K, String> partitioner,
+                                                                     Supplier<CircuitBreaker> factory) {
+        return new CircuitBreakerCacheLoader<>(delegate, partitioner, factory);
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+        return call(partitioner.apply(key), () -> delegate.load(key));
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+        Map<String, List<K>> partitions = new LinkedHashMap<>();
+        for (K key : keys) {
+            partitions.computeIfAbsent(partitioner.apply(key), p -> new ArrayList<>()).add(key);
+        }
+        if (partitions.size() == 1) {
+            Map.Entry<String, List<K>> entry = partitions.entrySet().iterator().next();
+            return call(entry.getKey(), () -> delegate.loadAll(entry.getValue()));
+        }
+        Map<K, V> result = new HashMap<>();
+        for (Map.Entry<String, List<K>> entry : partitions.entrySet()) {
+            result.putAll(call(entry.getKey(), () -> delegate.loadAll(entry.getValue())));
+        }
+        return result;
+    }
+
+    @Override
+    public V reload(K key, V oldValue) throws Exception {
+        return call(partitioner.apply(key), () -> delegate.reload(key, oldValue));
+    }
+
+    private <T> T call(String partition, Callable<T> loader) throws Exception {
+        CircuitBreaker breaker = breakers.computeIfAbsent(partition, p -> factory.get());
+        if (!breaker.tryAcquire()) {
+            throw new CircuitBreakerOpenException(partition);
+        }
+        try {
+            T value = loader.call();
+            breaker.onSuccess();
+            return value;
+        } catch (Exception | Error e) {
+            breaker.onFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * @return 单一熔断器模式下的熔断器，分区模式下为默认分区的熔断器(不存在时为null)
+     */
+    public CircuitBreaker breaker() {
+        return breakers.get(DEFAULT_PARTITION);
+    }
+
+    public CircuitBreaker breaker(String partition) {
+        return breakers.get(partition);
+    }
+
+    /**
+     * @return 各分区熔断器的只读视图，用于导出指标
+     */
+    public Map<String, CircuitBreaker> breakers() {
+        return Collections.unmodifiableMap(breakers);
+    }
+}
@@ -0,0 +1,16 @@
+package com.shf.caffeine.resilience;
+
+/**
+ * description :
+ * 熔断器处于打开状态时加载被短路，调用方收到该异常，缓存按加载失败处理且不写入
+ *
+ * @author agent
+ * @date 2026/10/17 10:26
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitBreakerOpenException(String name) {
+        super("circuit breaker [" + name + "] is open");
+    }
+}
@@ -0,0 +1,85 @@
+package com.shf.caffeine.simulator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * description :
+ * 基于录制轨迹的命中率模拟器：对一组maximumSize依次构建缓存并回放轨迹，输出命中率、驱逐数与吞吐量，
+ * 用于根据真实流量而非经验确定缓存容量。
+ * 回放采用cache-aside方式(getIfPresent未命中后put)，与{@code Sample#evictNumCache}的驱逐行为一致；
+ * 维护任务在调用线程同步执行，保证驱逐结果可复现。
+ * <pre>
+ * java com.shf.caffeine.simulator.CacheSimulator &lt;trace&gt; &lt;LIRS|ARC|ZIPF&gt; &lt;size&gt;[,size...]
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:08
+ */
+public class CacheSimulator {
+    private final MappedTraceReader reader;
+    private final UnaryOperator<Caffeine<Object, Object>> options;
+
+    public CacheSimulator(Path trace, TraceFormat format) {
+        this(trace, format, UnaryOperator.identity());
+    }
+
+    /**
+     * @param trace   轨迹文件
+     * @param format  轨迹格式
+     * @param options 在maximumSize之外追加的构建选项，与线上缓存保持一致，如expireAfterWrite等
+     */
+    public CacheSimulator(Path trace, TraceFormat format, UnaryOperator<Caffeine<Object, Object>> options) {
+        this.reader = new MappedTraceReader(trace, format);
+        this.options = options;
+    }
+
+    public SimulationResult simulate(long maximumSize) throws IOException {
+        final Cache<Long, Boolean> cache = options.apply(Caffeine.newBuilder())
+                .maximumSize(maximumSize)
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        long start = System.nanoTime();
+        reader.forEach(key -> {
+            if (cache.getIfPresent(key) == null) {
+                cache.put(key, Boolean.TRUE);
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+        cache.cleanUp();
+        return new SimulationResult(maximumSize, cache.stats().requestCount(), cache.stats().hitCount(),
+                cache.stats().evictionCount(), elapsed);
+    }
+
+    public List<SimulationResult> sweep(long... sizes) throws IOException {
+        List<SimulationResult> results = new ArrayList<>(sizes.length);
+        for (long size : sizes) {
+            results.add(simulate(size));
+        }
+        return results;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: CacheSimulator <trace> <LIRS|ARC|ZIPF> <size>[,size...]");
+            System.exit(1);
+        }
+        String[] values = args[2].split(",");
+        long[] sizes = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            sizes[i] = Long.parseLong(values[i].trim());
+        }
+        CacheSimulator simulator = new CacheSimulator(Paths.get(args[0]), TraceFormat.valueOf(args[1].toUpperCase()));
+        for (SimulationResult result : simulator.sweep(sizes)) {
+            System.out.println(result);
+        }
+    }
+}
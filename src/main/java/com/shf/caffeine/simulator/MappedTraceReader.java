@@ -0,0 +1,114 @@
+package com.shf.caffeine.simulator;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * description :
+ * 基于内存映射的轨迹读取器，按块映射文件并逐字节解析，不为每行创建String对象，
+ * 可流式回放超过堆大小(乃至超过2GB单次映射上限)的轨迹文件。
+ *
+ * @author agent
+ * @date 2026/10/17 10:08
+ */
+public class MappedTraceReader {
+    static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+    private static final int MAX_FIELDS = 8;
+
+    private final Path path;
+    private final TraceFormat format;
+    private final long chunkSize;
+
+    public MappedTraceReader(Path path, TraceFormat format) {
+        this(path, format, DEFAULT_CHUNK_SIZE);
+    }
+
+    MappedTraceReader(Path path, TraceFormat format, long chunkSize) {
+        this.path = path;
+        this.format = format;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 按顺序回放轨迹中的全部key
+     *
+     * @param consumer key消费者
+     * @throws IOException 读取文件失败
+     */
+    public void forEach(LongConsumer consumer) throws IOException {
+        long[] fields = new long[MAX_FIELDS];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(chunkSize, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+                int consumed = parse(buffer, last, fields, consumer);
+                if (consumed == 0) {
+                    throw new IOException("Trace line exceeds chunk size " + chunkSize + " at offset " + position);
+                }
+                position += consumed;
+            }
+        }
+    }
+
+    /**
+     * 解析当前块中的完整行，非最后一块时末尾不完整的行留待下一块处理
+     *
+     * @return 已消费的字节数
+     */
+    private int parse(MappedByteBuffer buffer, boolean last, long[] fields, LongConsumer consumer) {
+        int limit = buffer.limit();
+        int end = limit;
+        if (!last) {
+            while (end > 0 && buffer.get(end - 1) != '\n') {
+                end--;
+            }
+        }
+        int count = 0;
+        long value = 0;
+        boolean inNumber = false;
+        boolean valid = true;
+        for (int i = 0; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                inNumber = true;
+            } else if (b == ' ' || b == '\t' || b == ',' || b == '\r') {
+                if (inNumber && count < MAX_FIELDS) {
+                    fields[count++] = value;
+                }
+                value = 0;
+                inNumber = false;
+            } else if (b == '\n') {
+                if (inNumber && count < MAX_FIELDS) {
+                    fields[count++] = value;
+                }
+                if (valid && count > 0) {
+                    format.emit(fields, count, consumer);
+                }
+                count = 0;
+                value = 0;
+                inNumber = false;
+                valid = true;
+            } else {
+                // 含非数字内容的行(如注释、LIRS的"*"分隔符)直接忽略
+                valid = false;
+            }
+        }
+        if (last) {
+            if (inNumber && count < MAX_FIELDS) {
+                fields[count++] = value;
+            }
+            if (valid && count > 0) {
+                format.emit(fields, count, consumer);
+            }
+        }
+        return end;
+    }
+}
@@ -0,0 +1,57 @@
+package com.shf.caffeine.simulator;
+
+/**
+ * description :
+ * 单个容量下的回放结果
+ *
+ * @author agent
+ * @date 2026/10/17 10:08
+ */
+public class SimulationResult {
+    private final long maximumSize;
+    private final long requestCount;
+    private final long hitCount;
+    private final long evictionCount;
+    private final long elapsedNanos;
+
+    SimulationResult(long maximumSize, long requestCount, long hitCount, long evictionCount, long elapsedNanos) {
+        this.maximumSize = maximumSize;
+        this.requestCount = requestCount;
+        this.hitCount = hitCount;
+        this.evictionCount = evictionCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long maximumSize() {
+        return maximumSize;
+    }
+
+    public long requestCount() {
+        return requestCount;
+    }
+
+    public long hitCount() {
+        return hitCount;
+    }
+
+    public double hitRatio() {
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return 每秒回放的请求数
+     */
+    public double throughput() {
+        return elapsedNanos == 0 ? 0 : requestCount * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("maximumSize=%d, requests=%d, hitRatio=%.2f%%, evictions=%d, throughput=%.0f ops/s",
+                maximumSize, requestCount, hitRatio() * 100, evictionCount, throughput());
+    }
+}
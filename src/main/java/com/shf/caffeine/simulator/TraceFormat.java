@@ -0,0 +1,51 @@
+package com.shf.caffeine.simulator;
+
+import java.util.function.LongConsumer;
+
+/**
+ * description :
+ * 支持的访问轨迹格式，每行按空白或逗号切分为若干数字字段后交由对应格式解析为key序列。
+ *
+ * @author agent
+ * @date 2026/10/17 10:08
+ */
+public enum TraceFormat {
+    /**
+     * LIRS轨迹：每行一个块号
+     */
+    LIRS {
+        @Override
+        void emit(long[] fields, int count, LongConsumer consumer) {
+            consumer.accept(fields[0]);
+        }
+    },
+    /**
+     * ARC轨迹：每行为"起始块号 块数 忽略 请求序号"，需展开为连续的块访问
+     */
+    ARC {
+        @Override
+        void emit(long[] fields, int count, LongConsumer consumer) {
+            long start = fields[0];
+            long blocks = count > 1 ? fields[1] : 1;
+            for (long i = 0; i < blocks; i++) {
+                consumer.accept(start + i);
+            }
+        }
+    },
+    /**
+     * Zipf轨迹：由{@link ZipfTraceGenerator}生成，每行一个key
+     */
+    ZIPF {
+        @Override
+        void emit(long[] fields, int count, LongConsumer consumer) {
+            consumer.accept(fields[0]);
+        }
+    };
+
+    /**
+     * @param fields  当前行解析出的数字字段
+     * @param count   有效字段数，至少为1
+     * @param consumer key消费者
+     */
+    abstract void emit(long[] fields, int count, LongConsumer consumer);
+}
@@ -0,0 +1,72 @@
+package com.shf.caffeine.simulator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * description :
+ * 生成服从Zipf分布的合成轨迹并写入磁盘，格式为{@link TraceFormat#ZIPF}，
+ * 用于在缺少线上录制轨迹时对缓存容量进行粗略评估。
+ *
+ * @author agent
+ * @date 2026/10/17 10:08
+ */
+public class ZipfTraceGenerator {
+    private final int items;
+    private final double[] cumulative;
+
+    /**
+     * @param items    key空间大小
+     * @param exponent Zipf指数，越大访问越集中
+     */
+    public ZipfTraceGenerator(int items, double exponent) {
+        if (items <= 0) {
+            throw new IllegalArgumentException("items must be positive");
+        }
+        this.items = items;
+        this.cumulative = new double[items];
+        double sum = 0;
+        for (int i = 0; i < items; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < items; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * @param path     输出文件
+     * @param requests 访问次数
+     * @param seed     随机种子，相同种子生成相同轨迹
+     * @throws IOException 写入失败
+     */
+    public void write(Path path, long requests, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            for (long i = 0; i < requests; i++) {
+                writer.write(Long.toString(next(random)));
+                writer.write('\n');
+            }
+        }
+    }
+
+    int next(Random random) {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = items - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,349 @@
+package com.shf.caffeine.snapshot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.shf.caffeine.offheap.Serializer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * description :
+ * 缓存快照与预热恢复，用于重启后跳过冷启动阶段。
+ * 文件格式(大端)：
+ * <pre>
+ * header : magic(int) version(int) createdAtMillis(long)
+ * entry  : keyLength(int) key valueLength(int) value remainingNanos(long, -1表示不过期) heat(byte)
+ * footer : entryCount(long) blockCount(int) {offset(long) length(long)}*
+ * tail   : footerOffset(long)
+ * </pre>
+ * 1、写入：按{@link Policy.Eviction#hottest(int)}从热到冷输出条目，heat由热度排名换算为1~15
+ * (与Caffeine频率草图4位计数器的上限一致)，没有容量限制的缓存heat为0；
+ * 剩余存活时间取expireAfterWrite、expireAfterAccess与expireVariably中最早的到期时间，已过期的条目不写入；
+ * 先写临时文件再原子替换，写入中途失败不会破坏上一份快照。
+ * 2、恢复：按footer中的块索引把文件分给多个线程，各线程独立映射所负责的块并批量写入；
+ * 剩余存活时间扣除快照至今的停机时间，已到期的条目跳过；
+ * 缓存支持expireVariably时按剩余时间写入，否则只能以缓存配置的完整时长重新计时；
+ * replayHeat为true时对每个条目额外读取heat - 1次，使频率草图恢复热度，避免热点条目在恢复后被冷条目挤出，
+ * 这些读取会计入命中统计。
+ *
+ * @author agent
+ * @date 2026/10/17 10:45
+ */
+public final class CacheSnapshot {
+    static final int MAGIC = 0x43534E50;
+    static final int VERSION = 1;
+    static final int MAX_HEAT = 15;
+    private static final int BLOCK_ENTRIES = 4096;
+    private static final long BLOCK_BYTES = 64L * 1024 * 1024;
+
+    private CacheSnapshot() {
+    }
+
+    /**
+     * @return 写入的条目数
+     * @throws IOException 写入文件失败
+     */
+    public static <K, V> long write(Cache<K, V> cache, Path file, Serializer<K> keySerializer,
+                                    Serializer<V> valueSerializer) throws IOException {
+        Policy<K, V> policy = cache.policy();
+        Map<K, V> entries = policy.eviction()
+                .map(eviction -> eviction.hottest(Integer.MAX_VALUE))
+                .orElse(cache.asMap());
+        boolean ranked = policy.eviction().isPresent();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        boolean moved = false;
+        try {
+            long entryCount = writeEntries(temp, policy, entries, ranked, keySerializer, valueSerializer);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+            return entryCount;
+        } finally {
+            // 序列化或写入中途失败时不留下不完整的临时文件
+            if (!moved) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static <K, V> long writeEntries(Path temp, Policy<K, V> policy, Map<K, V> entries, boolean ranked,
+                                            Serializer<K> keySerializer, Serializer<V> valueSerializer)
+            throws IOException {
+        List<long[]> blocks = new ArrayList<>();
+        long entryCount = 0;
+        try (CountingOutputStream counter = new CountingOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16));
+             DataOutputStream out = new DataOutputStream(counter)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+
+            int size = entries.size();
+            int rank = 0;
+            long blockStart = counter.count;
+            int blockEntries = 0;
+            for (Map.Entry<K, V> entry : entries.entrySet()) {
+                int heat = ranked ? 1 + (int) ((long) (MAX_HEAT - 1) * (size - rank) / size) : 0;
+                rank++;
+                long remaining = remainingNanos(policy, entry.getKey());
+                if (remaining == 0) {
+                    continue;
+                }
+                writeBytes(out, keySerializer.serialize(entry.getKey()));
+                writeBytes(out, valueSerializer.serialize(entry.getValue()));
+                out.writeLong(remaining);
+                out.writeByte(heat);
+                entryCount++;
+                if (++blockEntries == BLOCK_ENTRIES || counter.count - blockStart >= BLOCK_BYTES) {
+                    blocks.add(new long[]{blockStart, counter.count - blockStart});
+                    blockStart = counter.count;
+                    blockEntries = 0;
+                }
+            }
+            if (blockEntries > 0) {
+                blocks.add(new long[]{blockStart, counter.count - blockStart});
+            }
+
+            long footerOffset = counter.count;
+            out.writeLong(entryCount);
+            out.writeInt(blocks.size());
+            for (long[] block : blocks) {
+                out.writeLong(block[0]);
+                out.writeLong(block[1]);
+            }
+            out.writeLong(footerOffset);
+        }
+        return entryCount;
+    }
+
+    /**
+     * @param parallelism 恢复线程数
+     * @throws IOException 文件不存在、格式不符或反序列化失败
+     */
+    public static <K, V> RestoreResult restore(Cache<K, V> cache, Path file, Serializer<K> keySerializer,
+                                               Serializer<V> valueSerializer, int parallelism,
+                                               boolean replayHeat) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, 0, 16);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("not a cache snapshot: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported snapshot version " + version);
+            }
+            long downtimeNanos = TimeUnit.MILLISECONDS.toNanos(
+                    Math.max(0, System.currentTimeMillis() - header.getLong()));
+
+            long footerOffset = read(channel, channel.size() - 8, 8).getLong();
+            ByteBuffer footer = read(channel, footerOffset, (int) (channel.size() - 8 - footerOffset));
+            footer.getLong();
+            long[][] blocks = new long[footer.getInt()][];
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = new long[]{footer.getLong(), footer.getLong()};
+            }
+
+            Optional<Policy.VarExpiration<K, V>> varExpiration = cache.policy().expireVariably();
+            AtomicInteger nextBlock = new AtomicInteger();
+            LongAdder restored = new LongAdder();
+            LongAdder expired = new LongAdder();
+            Runnable worker = () -> {
+                for (int index; (index = nextBlock.getAndIncrement()) < blocks.length; ) {
+                    MappedByteBuffer block;
+                    try {
+                        block = channel.map(FileChannel.MapMode.READ_ONLY, blocks[index][0], blocks[index][1]);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    while (block.hasRemaining()) {
+                        K key = keySerializer.deserialize(slice(block));
+                        V value = valueSerializer.deserialize(slice(block));
+                        long remaining = block.getLong();
+                        int heat = block.get();
+                        if (remaining > 0) {
+                            remaining -= downtimeNanos;
+                            if (remaining <= 0) {
+                                expired.increment();
+                                continue;
+                            }
+                        }
+                        if (remaining > 0 && varExpiration.isPresent()) {
+                            varExpiration.get().put(key, value, remaining, TimeUnit.NANOSECONDS);
+                        } else {
+                            cache.put(key, value);
+                        }
+                        for (int i = 1; replayHeat && i < heat; i++) {
+                            cache.getIfPresent(key);
+                        }
+                        restored.increment();
+                    }
+                }
+            };
+            runAll(worker, Math.max(1, Math.min(parallelism, blocks.length)));
+            return new RestoreResult(restored.sum(), expired.sum(), System.nanoTime() - start);
+        }
+    }
+
+    private static void runAll(Runnable worker, int parallelism) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < parallelism; i++) {
+                futures.add(executor.submit(worker));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("restore interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new IOException("failed to restore snapshot",
+                    cause instanceof IllegalStateException && cause.getCause() != null ? cause.getCause() : cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return 剩余存活纳秒数，-1表示不过期，0表示已过期
+     */
+    static <K, V> long remainingNanos(Policy<K, V> policy, K key) {
+        long remaining = Long.MAX_VALUE;
+        Optional<Policy.Expiration<K, V>> afterWrite = policy.expireAfterWrite();
+        if (afterWrite.isPresent()) {
+            remaining = Math.min(remaining, remaining(afterWrite.get(), key));
+        }
+        Optional<Policy.Expiration<K, V>> afterAccess = policy.expireAfterAccess();
+        if (afterAccess.isPresent()) {
+            remaining = Math.min(remaining, remaining(afterAccess.get(), key));
+        }
+        Optional<Policy.VarExpiration<K, V>> variable = policy.expireVariably();
+        if (variable.isPresent()) {
+            OptionalLong expiresAfter = variable.get().getExpiresAfter(key, TimeUnit.NANOSECONDS);
+            if (expiresAfter.isPresent()) {
+                remaining = Math.min(remaining, expiresAfter.getAsLong());
+            }
+        }
+        return remaining == Long.MAX_VALUE ? -1 : Math.max(0, remaining);
+    }
+
+    private static <K, V> long remaining(Policy.Expiration<K, V> expiration, K key) {
+        OptionalLong age = expiration.ageOf(key, TimeUnit.NANOSECONDS);
+        return age.isPresent() ? expiration.getExpiresAfter(TimeUnit.NANOSECONDS) - age.getAsLong() : 0;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static ByteBuffer slice(ByteBuffer block) {
+        int length = block.getInt();
+        ByteBuffer field = block.slice();
+        field.limit(length);
+        block.position(block.position() + length);
+        return field;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        if (position < 0 || length < 0) {
+            throw new IOException("truncated snapshot");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("truncated snapshot");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    public static final class RestoreResult {
+        private final long restoredCount;
+        private final long expiredCount;
+        private final long elapsedNanos;
+
+        RestoreResult(long restoredCount, long expiredCount, long elapsedNanos) {
+            this.restoredCount = restoredCount;
+            this.expiredCount = expiredCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long restoredCount() {
+            return restoredCount;
+        }
+
+        /**
+         * @return 因停机期间到期而跳过的条目数
+         */
+        public long expiredCount() {
+            return expiredCount;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RestoreResult{restored=%d, expired=%d, elapsedMillis=%d}", restoredCount,
+                    expiredCount, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+}
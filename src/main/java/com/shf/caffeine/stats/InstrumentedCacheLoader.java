@@ -0,0 +1,60 @@
+package com.shf.caffeine.stats;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import java.util.Map;
+
+/**
+ * description :
+ * 为{@link CacheLoader}记录加载耗时：load/loadAll记为{@link LoadCause#INITIAL}，reload记为{@link LoadCause#REFRESH}。
+ * 加载失败同样记录耗时，便于发现超时类故障。异步加载与刷新沿用{@link CacheLoader}的默认实现，最终仍经过load/reload。
+ * <pre>
+ * LoadLatencyRecorder recorder = new LoadLatencyRecorder("sample");
+ * LoadingCache&lt;String, String&gt; cache = Caffeine.newBuilder()
+ *         .maximumSize(100)
+ *         .recordStats()
+ *         .build(new InstrumentedCacheLoader&lt;&gt;(this::getValue, recorder));
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:11
+ */
+public class InstrumentedCacheLoader<K, V> implements CacheLoader<K, V> {
+    private final CacheLoader<K, V> delegate;
+    private final LoadLatencyRecorder recorder;
+
+    public InstrumentedCacheLoader(CacheLoader<K, V> delegate, LoadLatencyRecorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return delegate.load(key);
+        } finally {
+            recorder.record(LoadCause.INITIAL, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return delegate.loadAll(keys);
+        } finally {
+            recorder.record(LoadCause.INITIAL, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public V reload(K key, V oldValue) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return delegate.reload(key, oldValue);
+        } finally {
+            recorder.record(LoadCause.REFRESH, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.shf.caffeine.stats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * {@link LatencyHistogram}某一时刻的只读快照，单位为纳秒
+ *
+ * @author agent
+ * @date 2026/10/17 10:11
+ */
+public class LatencySnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long max;
+
+    LatencySnapshot(long[] counts, long max) {
+        this.counts = counts;
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        this.count = total;
+        this.max = max;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /**
+     * @param percentile 百分位，取值(0, 100]
+     * @return 对应百分位的耗时，无记录时返回0
+     */
+    public long valueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.valueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long p50() {
+        return valueAtPercentile(50);
+    }
+
+    public long p99() {
+        return valueAtPercentile(99);
+    }
+
+    public long p999() {
+        return valueAtPercentile(99.9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, p50=%dus, p99=%dus, p999=%dus, max=%dus", count,
+                TimeUnit.NANOSECONDS.toMicros(p50()), TimeUnit.NANOSECONDS.toMicros(p99()),
+                TimeUnit.NANOSECONDS.toMicros(p999()), TimeUnit.NANOSECONDS.toMicros(max));
+    }
+}
@@ -0,0 +1,19 @@
+package com.shf.caffeine.stats;
+
+/**
+ * description :
+ * 加载原因
+ *
+ * @author agent
+ * @date 2026/10/17 10:11
+ */
+public enum LoadCause {
+    /**
+     * 缓存未命中触发的首次加载，包括get(key, mappingFunction)、LoadingCache.get及getAll
+     */
+    INITIAL,
+    /**
+     * refreshAfterWrite或refresh触发的刷新
+     */
+    REFRESH
+}
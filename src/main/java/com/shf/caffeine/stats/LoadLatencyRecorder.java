@@ -0,0 +1,59 @@
+package com.shf.caffeine.stats;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * description :
+ * 单个缓存的加载耗时记录器，按{@link LoadCause}分别维护直方图，弥补{@code cache.stats()}仅提供总加载耗时的不足。
+ * 通常每个缓存实例持有一个记录器，并通过{@link InstrumentedCacheLoader}或{@link #wrap(Function)}接入加载路径。
+ *
+ * @author agent
+ * @date 2026/10/17 10:11
+ */
+public class LoadLatencyRecorder {
+    private final String name;
+    private final Map<LoadCause, LatencyHistogram> histograms = new EnumMap<>(LoadCause.class);
+
+    /**
+     * @param name 缓存名称，用于指标输出
+     */
+    public LoadLatencyRecorder(String name) {
+        this.name = name;
+        for (LoadCause cause : LoadCause.values()) {
+            histograms.put(cause, new LatencyHistogram());
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void record(LoadCause cause, long nanos) {
+        histograms.get(cause).record(nanos);
+    }
+
+    public LatencySnapshot snapshot(LoadCause cause) {
+        return histograms.get(cause).snapshot();
+    }
+
+    /**
+     * 包装{@code cache.get(key, mappingFunction)}所用的mappingFunction，按{@link LoadCause#INITIAL}记录耗时
+     */
+    public <K, V> Function<K, V> wrap(Function<K, V> mappingFunction) {
+        return key -> {
+            long start = System.nanoTime();
+            try {
+                return mappingFunction.apply(key);
+            } finally {
+                record(LoadCause.INITIAL, System.nanoTime() - start);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return name + "{initial=[" + snapshot(LoadCause.INITIAL) + "], refresh=[" + snapshot(LoadCause.REFRESH) + "]}";
+    }
+}
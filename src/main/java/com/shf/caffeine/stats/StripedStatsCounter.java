@@ -0,0 +1,123 @@
+package com.shf.caffeine.stats;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * description :
+ * 可插拔的{@link StatsCounter}，通过{@code Caffeine.recordStats(Supplier)}替换默认的recordStats()，
+ * 在默认实现同样基于{@link LongAdder}的计数之上增加命中采样：
+ * 1、命中计数按1/N采样，每次被采中时累加N，读多写少的缓存可减少命中路径上的计数写入；
+ * 2、未命中、加载与驱逐计数始终精确记录，保证miss与load相关指标可用于告警。
+ * 采样率为1时与Caffeine默认的ConcurrentStatsCounter等价，没有额外收益。
+ * <pre>
+ * Caffeine.newBuilder()
+ *         .maximumSize(100)
+ *         .recordStats(StripedStatsCounter.supplier(16))
+ *         .build();
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:09
+ */
+public class StripedStatsCounter implements StatsCounter {
+    private final int hitSampleRate;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder evictionWeight = new LongAdder();
+
+    public StripedStatsCounter() {
+        this(1);
+    }
+
+    /**
+     * @param hitSampleRate 命中采样率N，每N次命中记录一次，1表示不采样
+     */
+    public StripedStatsCounter(int hitSampleRate) {
+        if (hitSampleRate < 1) {
+            throw new IllegalArgumentException("hitSampleRate must be positive");
+        }
+        this.hitSampleRate = hitSampleRate;
+    }
+
+    public static Supplier<StatsCounter> supplier(int hitSampleRate) {
+        return () -> new StripedStatsCounter(hitSampleRate);
+    }
+
+    @Override
+    public void recordHits(int count) {
+        if (hitSampleRate == 1) {
+            hitCount.add(count);
+        } else if (ThreadLocalRandom.current().nextInt(hitSampleRate) == 0) {
+            hitCount.add((long) count * hitSampleRate);
+        }
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        missCount.add(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+        loadSuccessCount.increment();
+        totalLoadTime.add(loadTime);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+        loadFailureCount.increment();
+        totalLoadTime.add(loadTime);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void recordEviction() {
+        evictionCount.increment();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void recordEviction(int weight) {
+        evictionCount.increment();
+        evictionWeight.add(weight);
+    }
+
+    @Override
+    public void recordEviction(int weight, RemovalCause cause) {
+        recordEviction(weight);
+    }
+
+    public int hitSampleRate() {
+        return hitSampleRate;
+    }
+
+    /**
+     * 采样模式下hitCount为估算值，其误差随命中次数增加而收敛
+     */
+    @Override
+    public CacheStats snapshot() {
+        return CacheStats.of(
+                hitCount.sum(),
+                missCount.sum(),
+                loadSuccessCount.sum(),
+                loadFailureCount.sum(),
+                totalLoadTime.sum(),
+                evictionCount.sum(),
+                evictionWeight.sum());
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -0,0 +1,143 @@
+package com.shf.caffeine.timeout;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * description :
+ * 带加载超时的缓存：{@code Sample}中getValue在调用线程内同步执行且没有截止时间，后端变慢时cache.get随之变慢。
+ * 本类基于buildAsync，加载在executor上执行，调用方最多等待timeout：
+ * 1、超时后立即返回该key最近一次成功加载的值，没有时返回defaultValue计算的默认值；
+ * 2、超时的加载不会被取消，完成后照常写入缓存，后续读取即可命中；
+ * 3、最近值保存在独立的有界缓存中，不随主缓存的过期而丢失；
+ * 4、超时次数及两类降级次数单独计数，与{@link #stats()}一同输出。
+ * <pre>
+ * TimeoutLoadingCache&lt;String, String&gt; cache = new TimeoutLoadingCache&lt;&gt;(
+ *         Caffeine.newBuilder().maximumSize(100).expireAfterWrite(5, TimeUnit.SECONDS).recordStats(),
+ *         this::getValue, 50, TimeUnit.MILLISECONDS, 10_000, key -&gt; MOCK_VALUE);
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:24
+ */
+public class TimeoutLoadingCache<K, V> {
+    private final AsyncLoadingCache<K, V> cache;
+    private final Cache<K, V> lastKnown;
+    private final long timeoutNanos;
+    private final Function<? super K, ? extends V> defaultValue;
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder lastKnownFallbackCount = new LongAdder();
+    private final LongAdder defaultFallbackCount = new LongAdder();
+
+    /**
+     * @param builder          其余构建选项
+     * @param loader           加载函数
+     * @param timeout          单次读取的最大等待时间
+     * @param unit             时间单位
+     * @param lastKnownMaxSize 最近值缓存的容量
+     * @param defaultValue     没有最近值时的默认值，可返回null
+     */
+    public TimeoutLoadingCache(Caffeine<Object, Object> builder, CacheLoader<K, V> loader, long timeout,
+                               TimeUnit unit, long lastKnownMaxSize, Function<? super K, ? extends V> defaultValue) {
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.defaultValue = defaultValue;
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(lastKnownMaxSize)
+                .build();
+        this.cache = builder.buildAsync(new CacheLoader<K, V>() {
+            @Override
+            public V load(K key) throws Exception {
+                return remember(key, loader.load(key));
+            }
+
+            @Override
+            public V reload(K key, V oldValue) throws Exception {
+                return remember(key, loader.reload(key, oldValue));
+            }
+        });
+    }
+
+    public V get(K key) {
+        CompletableFuture<V> future = cache.get(key);
+        if (future.isDone()) {
+            return future.join();
+        }
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeoutCount.increment();
+            return fallback(key);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    public V getIfPresent(K key) {
+        CompletableFuture<V> future = cache.getIfPresent(key);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, CompletableFuture.completedFuture(value));
+        lastKnown.put(key, value);
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+        lastKnown.invalidate(key);
+    }
+
+    public AsyncLoadingCache<K, V> delegate() {
+        return cache;
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    /**
+     * @return 读取超时次数
+     */
+    public long timeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    public long lastKnownFallbackCount() {
+        return lastKnownFallbackCount.sum();
+    }
+
+    public long defaultFallbackCount() {
+        return defaultFallbackCount.sum();
+    }
+
+    private V fallback(K key) {
+        V value = lastKnown.getIfPresent(key);
+        if (value != null) {
+            lastKnownFallbackCount.increment();
+            return value;
+        }
+        defaultFallbackCount.increment();
+        return defaultValue.apply(key);
+    }
+
+    private V remember(K key, V value) {
+        if (value != null) {
+            lastKnown.put(key, value);
+        }
+        return value;
+    }
+}
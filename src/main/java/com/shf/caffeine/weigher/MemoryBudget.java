@@ -0,0 +1,78 @@
+package com.shf.caffeine.weigher;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.util.Locale;
+
+/**
+ * description :
+ * 以内存大小表达的缓存容量，替代按条目数的maximumSize：
+ * 支持"512MB"、"1.5GB"、"64KB"、"4096"(字节)等写法，单位按1024进制；也支持"25%"表示最大堆的百分比。
+ * <pre>
+ * Cache&lt;String, String&gt; cache = MemoryBudget.parse("512MB")
+ *         .applyTo(Caffeine.newBuilder().recordStats(), Weighers.&lt;String, String&gt;estimatedDeepSize())
+ *         .build();
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:41
+ */
+public final class MemoryBudget {
+    private final long bytes;
+
+    private MemoryBudget(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("budget cannot be negative");
+        }
+        this.bytes = bytes;
+    }
+
+    public static MemoryBudget ofBytes(long bytes) {
+        return new MemoryBudget(bytes);
+    }
+
+    public static MemoryBudget parse(String text) {
+        String normalized = text.trim().toUpperCase(Locale.ROOT).replace(" ", "");
+        try {
+            if (normalized.endsWith("%")) {
+                double percent = Double.parseDouble(normalized.substring(0, normalized.length() - 1));
+                if (percent <= 0 || percent > 100) {
+                    throw new IllegalArgumentException("percent must be in (0, 100]: " + text);
+                }
+                return new MemoryBudget((long) (Runtime.getRuntime().maxMemory() * percent / 100));
+            }
+            long multiplier = 1;
+            String[] units = {"KB", "MB", "GB", "TB"};
+            for (int i = 0; i < units.length; i++) {
+                if (normalized.endsWith(units[i])) {
+                    multiplier = 1L << (10 * (i + 1));
+                    normalized = normalized.substring(0, normalized.length() - 2);
+                    break;
+                }
+            }
+            if (multiplier == 1 && normalized.endsWith("B")) {
+                normalized = normalized.substring(0, normalized.length() - 1);
+            }
+            return new MemoryBudget((long) (Double.parseDouble(normalized) * multiplier));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid memory budget: " + text, e);
+        }
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * 设置maximumWeight与weigher，weigher的权重单位须为字节
+     */
+    public <K, V> Caffeine<K, V> applyTo(Caffeine<Object, Object> builder, Weigher<? super K, ? super V> weigher) {
+        return builder.maximumWeight(bytes).weigher(weigher);
+    }
+
+    @Override
+    public String toString() {
+        return bytes + " bytes";
+    }
+}
@@ -0,0 +1,274 @@
+package com.shf.caffeine.weigher;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * description :
+ * 按64位JVM开启压缩指针时的对象布局(对象头12字节、引用4字节、8字节对齐)估算对象图占用的堆内存：
+ * 1、String、基本类型数组、包装类型按布局直接计算，JDK9以上按紧凑字符串区分Latin1与UTF16；
+ * 2、Collection与Map按常见实现估算内部结构(数组、哈希表、节点)，元素继续遍历；
+ * 3、其他对象按字段计算浅大小，followFields为true时通过反射继续遍历引用字段，无法访问的字段(如高版本JDK的模块内部字段)不计入；
+ * 4、引用数组与集合元素超过sampleLimit个时只遍历均匀抽取的sampleLimit个元素，再按比例放大；
+ * 5、同一对象只计算一次，Class与枚举常量视为共享对象不计入。
+ * 结果为估算值，用于按内存预算淘汰而非精确统计。
+ *
+ * @author agent
+ * @date 2026/10/17 10:41
+ */
+public final class ObjectGraphSizer {
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+    static final int HASH_NODE = 32;
+    static final int TREE_NODE = 40;
+
+    private static final boolean COMPACT_STRINGS = !System.getProperty("java.specification.version").startsWith("1.");
+    private static final ClassValue<ClassLayout> LAYOUTS = new ClassValue<ClassLayout>() {
+        @Override
+        protected ClassLayout computeValue(Class<?> type) {
+            return new ClassLayout(type);
+        }
+    };
+
+    private final int sampleLimit;
+    private final boolean followFields;
+
+    /**
+     * @param sampleLimit  单个数组或集合最多遍历的元素数
+     * @param followFields 是否反射遍历普通对象的引用字段
+     */
+    public ObjectGraphSizer(int sampleLimit, boolean followFields) {
+        if (sampleLimit < 1) {
+            throw new IllegalArgumentException("sampleLimit must be positive");
+        }
+        this.sampleLimit = sampleLimit;
+        this.followFields = followFields;
+    }
+
+    public long sizeOf(Object root) {
+        if (root == null) {
+            return 0;
+        }
+        Map<Object, Boolean> visited = new IdentityHashMap<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(new Node(root, 1.0));
+        double total = 0;
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            Object object = node.object;
+            if (object instanceof Class || object instanceof Enum || visited.put(object, Boolean.TRUE) != null) {
+                continue;
+            }
+            total += node.scale * visit(object, node.scale, pending);
+        }
+        return (long) total;
+    }
+
+    public static long stringSize(String value) {
+        int length = value.length();
+        int bytesPerChar = 2;
+        if (COMPACT_STRINGS) {
+            bytesPerChar = 1;
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) > 0xFF) {
+                    bytesPerChar = 2;
+                    break;
+                }
+            }
+        }
+        return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + (long) length * bytesPerChar);
+    }
+
+    /**
+     * @return 对象自身及其内部结构的大小，需要继续遍历的子对象压入pending
+     */
+    private long visit(Object object, double scale, Deque<Node> pending) {
+        Class<?> type = object.getClass();
+        if (object instanceof String) {
+            return stringSize((String) object);
+        }
+        if (type.isArray()) {
+            return arraySize(object, type.getComponentType(), scale, pending);
+        }
+        if (object instanceof Map && isJdkType(type)) {
+            Map<?, ?> map = (Map<?, ?>) object;
+            pushSampled(map.entrySet(), map.size(), scale, pending, true);
+            return mapStructureSize(map);
+        }
+        if (object instanceof Collection && isJdkType(type)) {
+            Collection<?> collection = (Collection<?>) object;
+            pushSampled(collection, collection.size(), scale, pending, false);
+            return collectionStructureSize(collection);
+        }
+        ClassLayout layout = LAYOUTS.get(type);
+        if (followFields) {
+            for (Field field : layout.references) {
+                Object child = readField(field, object);
+                if (child != null) {
+                    pending.push(new Node(child, scale));
+                }
+            }
+        }
+        return layout.shallowSize;
+    }
+
+    private long arraySize(Object array, Class<?> componentType, double scale, Deque<Node> pending) {
+        int length = Array.getLength(array);
+        if (componentType.isPrimitive()) {
+            return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+        }
+        Object[] elements = (Object[]) array;
+        int step = Math.max(1, length / sampleLimit);
+        int sampled = 0;
+        for (int i = 0; i < length; i += step) {
+            sampled++;
+        }
+        double childScale = sampled == 0 ? scale : scale * length / sampled;
+        for (int i = 0; i < length; i += step) {
+            if (elements[i] != null) {
+                pending.push(new Node(elements[i], childScale));
+            }
+        }
+        return align(ARRAY_HEADER + (long) length * REFERENCE);
+    }
+
+    /**
+     * 集合无法随机访问，取迭代顺序中的前sampleLimit个元素
+     */
+    private void pushSampled(Iterable<?> elements, int size, double scale, Deque<Node> pending, boolean entries) {
+        int sampled = Math.min(size, sampleLimit);
+        if (sampled == 0) {
+            return;
+        }
+        double childScale = scale * size / sampled;
+        Iterator<?> iterator = elements.iterator();
+        for (int i = 0; i < sampled && iterator.hasNext(); i++) {
+            Object element = iterator.next();
+            if (entries) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) element;
+                pushIfPresent(entry.getKey(), childScale, pending);
+                pushIfPresent(entry.getValue(), childScale, pending);
+            } else {
+                pushIfPresent(element, childScale, pending);
+            }
+        }
+    }
+
+    private static void pushIfPresent(Object object, double scale, Deque<Node> pending) {
+        if (object != null) {
+            pending.push(new Node(object, scale));
+        }
+    }
+
+    private static long mapStructureSize(Map<?, ?> map) {
+        int size = map.size();
+        if (map instanceof TreeMap) {
+            return align(OBJECT_HEADER + 36) + (long) size * TREE_NODE;
+        }
+        int nodeSize = map instanceof LinkedHashMap ? HASH_NODE + 8 : HASH_NODE;
+        return align(OBJECT_HEADER + 36) + hashTableSize(size) + (long) size * nodeSize;
+    }
+
+    private static long collectionStructureSize(Collection<?> collection) {
+        int size = collection.size();
+        if (collection instanceof Set) {
+            // HashSet等基于Map实现，额外计入外层包装对象
+            return align(OBJECT_HEADER + REFERENCE) + align(OBJECT_HEADER + 36) + hashTableSize(size)
+                    + (long) size * HASH_NODE;
+        }
+        if (collection instanceof List && !(collection instanceof ArrayList)) {
+            // LinkedList等链表结构按每元素一个节点计算
+            return align(OBJECT_HEADER + 12) + (long) size * align(OBJECT_HEADER + 3 * REFERENCE);
+        }
+        return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + (long) size * REFERENCE);
+    }
+
+    private static long hashTableSize(int size) {
+        int capacity = 16;
+        while (capacity * 3L / 4 < size) {
+            capacity <<= 1;
+        }
+        return align(ARRAY_HEADER + (long) capacity * REFERENCE);
+    }
+
+    private static boolean isJdkType(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.");
+    }
+
+    private static Object readField(Field field, Object object) {
+        try {
+            return field.get(object);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static final class Node {
+        final Object object;
+        final double scale;
+
+        Node(Object object, double scale) {
+            this.object = object;
+            this.scale = scale;
+        }
+    }
+
+    private static final class ClassLayout {
+        final long shallowSize;
+        final List<Field> references = new ArrayList<>();
+
+        ClassLayout(Class<?> type) {
+            long size = OBJECT_HEADER;
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                        continue;
+                    }
+                    size += REFERENCE;
+                    try {
+                        field.setAccessible(true);
+                        references.add(field);
+                    } catch (RuntimeException e) {
+                        // 模块系统拒绝访问时只计入引用本身
+                    }
+                }
+            }
+            this.shallowSize = align(size);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.shf.caffeine.weigher;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.shf.caffeine.offheap.Serializer;
+
+/**
+ * description :
+ * 配合maximumWeight使用的权重函数，权重单位均为字节：
+ * 1、{@link #serializedSize(Serializer)}：值序列化后的精确字节数，每次写入都需序列化一次，适合本就需要序列化的值；
+ * 2、{@link #estimatedDeepSize()}：按对象布局估算键与值的堆内存，覆盖String、数组、包装类型与JDK集合，其他对象只计浅大小；
+ * 3、{@link #sampledDeepSize(int)}：在2的基础上通过反射遍历任意对象图，大数组与集合抽样后按比例放大。
+ * 2、3计入每个条目在Caffeine中的节点开销{@link #ENTRY_OVERHEAD}。权重超过int范围时按Integer.MAX_VALUE计算。
+ *
+ * @author agent
+ * @date 2026/10/17 10:41
+ */
+public final class Weighers {
+    /**
+     * Caffeine节点及其哈希表槽位的近似开销
+     */
+    public static final int ENTRY_OVERHEAD = 64;
+
+    private static final ObjectGraphSizer ESTIMATOR = new ObjectGraphSizer(Integer.MAX_VALUE, false);
+
+    private Weighers() {
+    }
+
+    public static <K, V> Weigher<K, V> serializedSize(Serializer<? super V> serializer) {
+        return (key, value) -> serializer.serialize(value).length;
+    }
+
+    public static <K, V> Weigher<K, V> estimatedDeepSize() {
+        return (key, value) -> toWeight(ENTRY_OVERHEAD + ESTIMATOR.sizeOf(key) + ESTIMATOR.sizeOf(value));
+    }
+
+    /**
+     * @param sampleLimit 单个数组或集合最多遍历的元素数
+     */
+    public static <K, V> Weigher<K, V> sampledDeepSize(int sampleLimit) {
+        ObjectGraphSizer sizer = new ObjectGraphSizer(sampleLimit, true);
+        return (key, value) -> toWeight(ENTRY_OVERHEAD + sizer.sizeOf(key) + sizer.sizeOf(value));
+    }
+
+    static int toWeight(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+}
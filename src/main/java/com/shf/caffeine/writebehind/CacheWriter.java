@@ -0,0 +1,19 @@
+package com.shf.caffeine.writebehind;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * description :
+ * 写回的目标存储，由{@link WriteBehindCache}的刷写线程批量调用。
+ * 抛出异常时整批按失败重试，实现须保证重复写入同一批数据是幂等的。
+ *
+ * @author agent
+ * @date 2026/10/17 10:56
+ */
+public interface CacheWriter<K, V> {
+
+    void writeAll(Map<K, V> entries) throws Exception;
+
+    void deleteAll(Set<K> keys) throws Exception;
+}
@@ -0,0 +1,22 @@
+package com.shf.caffeine.writebehind;
+
+/**
+ * description :
+ * 某个key尚未写回的最新操作，value为null表示删除
+ *
+ * @author agent
+ * @date 2026/10/17 10:56
+ */
+final class PendingWrite<V> {
+    final V value;
+    final long sequence;
+
+    PendingWrite(V value, long sequence) {
+        this.value = value;
+        this.sequence = sequence;
+    }
+
+    boolean isDelete() {
+        return value == null;
+    }
+}
@@ -0,0 +1,563 @@
+package com.shf.caffeine.writebehind;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.shf.caffeine.offheap.Serializer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * description :
+ * 写回(write-behind)缓存：put与invalidate立即更新缓存，写入目标存储的操作进入队列由后台线程异步完成。
+ * 1、同一key的多次写入合并为最新的一次，只写回最终值；
+ * 2、刷写线程在待写数达到batchSize或距上次刷写超过flushInterval时取出一批，删除与写入分别批量调用{@link CacheWriter}；
+ * 3、写回失败时整批保留在队列中，按指数退避重试直至成功，期间有更新的key以新值为准；
+ * 4、待写key数达到maxPending时写入方阻塞等待，超过maxBlock仍无空间则抛出{@link WriteQueueFullException}；
+ * 5、配置日志后每个操作先追加到本地日志再更新缓存，重启时回放未写回的操作并重新入队，同时恢复到缓存中。
+ * 缓存自身的淘汰与过期不影响待写队列，已淘汰但未写回的值仍会写回，读取未命中时也以待写队列中的值为准。
+ * <pre>
+ * WriteBehindCache&lt;String, String&gt; cache = WriteBehindCache.builder(
+ *                 Caffeine.newBuilder().maximumSize(10_000).&lt;String, String&gt;build(), writer)
+ *         .journal(Paths.get("cache.journal"), Serializer.string(), Serializer.string())
+ *         .batchSize(500)
+ *         .flushInterval(100, TimeUnit.MILLISECONDS)
+ *         .build();
+ * </pre>
+ *
+ * @author agent
+ * @date 2026/10/17 10:56
+ */
+@Slf4j
+public class WriteBehindCache<K, V> implements AutoCloseable {
+    private final Cache<K, V> cache;
+    private final CacheWriter<K, V> writer;
+    private final WriteJournal<K, V> journal;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxPending;
+    private final long maxBlockNanos;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final long compactThreshold;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final Map<K, PendingWrite<V>> pending = new LinkedHashMap<>();
+    private final Thread flusher;
+    private long sequence;
+    private int reservations;
+    private boolean flushing;
+    private boolean flushNow;
+    private volatile boolean running = true;
+
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+
+    private WriteBehindCache(Builder<K, V> builder) {
+        this.cache = builder.cache;
+        this.writer = builder.writer;
+        this.batchSize = builder.batchSize;
+        this.flushIntervalNanos = builder.flushIntervalNanos;
+        this.maxPending = builder.maxPending;
+        this.maxBlockNanos = builder.maxBlockNanos;
+        this.baseBackoffNanos = builder.baseBackoffNanos;
+        this.maxBackoffNanos = Math.max(builder.maxBackoffNanos, builder.baseBackoffNanos);
+        this.compactThreshold = builder.compactThreshold;
+        if (builder.journalFile != null) {
+            this.journal = new WriteJournal<>(builder.journalFile, builder.keySerializer, builder.valueSerializer,
+                    builder.fsync);
+            recover();
+        } else {
+            this.journal = null;
+        }
+        this.flusher = new Thread(this::flushLoop, "write-behind-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public static <K, V> Builder<K, V> builder(Cache<K, V> cache, CacheWriter<K, V> writer) {
+        return new Builder<>(cache, writer);
+    }
+
+    /**
+     * 缓存未命中时以待写队列为准：已淘汰但未写回的值直接返回，未写回的删除返回null
+     */
+    public V getIfPresent(K key) {
+        V value = cache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        lock.lock();
+        try {
+            PendingWrite<V> write = pending.get(key);
+            return write == null ? null : write.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 未命中时先查待写队列，已淘汰但未写回的值重新放回缓存，未写回的删除返回null；
+     * 队列中没有该key时通过mappingFunction从目标存储加载，加载结果只写入缓存，不产生写回。
+     * 加载期间该key若有新的写入，以新写入为准。
+     */
+    public V get(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = cache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        PendingWrite<V> write;
+        long loadSequence;
+        lock.lock();
+        try {
+            write = pending.get(key);
+            loadSequence = sequence;
+        } finally {
+            lock.unlock();
+        }
+        if (write != null) {
+            return restore(key);
+        }
+        value = cache.get(key, mappingFunction);
+        lock.lock();
+        try {
+            write = pending.get(key);
+        } finally {
+            lock.unlock();
+        }
+        // 查询队列与开始加载之间入队的写入可能已先于加载生效，被加载出的旧值覆盖
+        return write != null && write.sequence > loadSequence ? restore(key) : value;
+    }
+
+    /**
+     * @throws WriteQueueFullException 待写队列已满且在maxBlock内未能腾出空间
+     * @throws UncheckedIOException    追加日志失败，缓存未修改
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        enqueue(key, value);
+    }
+
+    /**
+     * 从缓存中移除并在目标存储中删除
+     */
+    public void invalidate(K key) {
+        enqueue(key, null);
+    }
+
+    /**
+     * 等待当前全部待写操作写回
+     *
+     * @return 是否在超时前全部写回
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            requestFlush();
+            while (!pending.isEmpty() || flushing) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = drained.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 停止刷写线程并对剩余的待写操作各尝试写回一次，仍失败的操作保留在日志中待下次启动恢复。
+     * 等待刷写线程退出时被中断不会跳过最后的写回，返回前恢复中断标记。
+     */
+    @Override
+    public void close() {
+        running = false;
+        flusher.interrupt();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                flusher.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        while (true) {
+            Map<K, PendingWrite<V>> batch;
+            lock.lock();
+            try {
+                batch = takeBatch();
+            } finally {
+                lock.unlock();
+            }
+            if (batch.isEmpty() || !writeBatch(batch)) {
+                break;
+            }
+            complete(batch);
+        }
+        if (journal != null) {
+            lock.lock();
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.warn("failed to close write-behind journal", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Cache<K, V> delegate() {
+        return cache;
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long writtenCount() {
+        return writtenCount.sum();
+    }
+
+    /**
+     * @return 因同一key尚未写回而被合并的写入次数
+     */
+    public long coalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public long batchCount() {
+        return batchCount.sum();
+    }
+
+    public long failureCount() {
+        return failureCount.sum();
+    }
+
+    private void enqueue(K key, V value) {
+        if (!running) {
+            throw new IllegalStateException("write-behind cache is closed");
+        }
+        reserve(key);
+        try {
+            // 缓存写入与入队在该key的compute内完成，同一key的写入按入队顺序生效，缓存中的值与队列中最新的值一致；
+            // 全局锁只在其中短暂持有，不跨越缓存写入，进行中的加载只会阻塞同一key的写入
+            cache.asMap().compute(key, (k, current) -> {
+                lock.lock();
+                try {
+                    PendingWrite<V> write = new PendingWrite<>(value, ++sequence);
+                    if (journal != null) {
+                        try {
+                            journal.append(k, write);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    if (pending.put(k, write) != null) {
+                        coalescedCount.increment();
+                    }
+                    if (pending.size() >= batchSize) {
+                        flushRequested.signal();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                return value;
+            });
+        } finally {
+            lock.lock();
+            try {
+                reservations--;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 在进入compute之前等待队列空间并预留一个名额，避免持有缓存的条目锁阻塞等待
+     */
+    private void reserve(K key) {
+        lock.lock();
+        try {
+            long remaining = maxBlockNanos;
+            while (pending.size() + reservations >= maxPending && !pending.containsKey(key)) {
+                if (remaining <= 0) {
+                    throw new WriteQueueFullException(maxPending);
+                }
+                requestFlush();
+                try {
+                    remaining = notFull.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new WriteQueueFullException(maxPending);
+                }
+            }
+            reservations++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 须持有锁，要求刷写线程不再等待攒批，直至队列清空
+     */
+    private void requestFlush() {
+        flushNow = true;
+        flushRequested.signal();
+    }
+
+    /**
+     * 使缓存与该key最新的待写操作一致，与入队一样在该key的compute内读取队列，不会覆盖并发入队的新值
+     */
+    private V restore(K key) {
+        return cache.asMap().compute(key, (k, current) -> {
+            PendingWrite<V> latest;
+            lock.lock();
+            try {
+                latest = pending.get(k);
+            } finally {
+                lock.unlock();
+            }
+            // 已写回并出队时缓存中的值即为最新
+            return latest == null ? current : latest.value;
+        });
+    }
+
+    private void recover() {
+        try {
+            Map<K, PendingWrite<V>> recovered = journal.recover();
+            sequence = journal.lastSequence();
+            for (Map.Entry<K, PendingWrite<V>> entry : recovered.entrySet()) {
+                if (entry.getValue().isDelete()) {
+                    cache.invalidate(entry.getKey());
+                } else {
+                    cache.put(entry.getKey(), entry.getValue().value);
+                }
+            }
+            pending.putAll(recovered);
+            if (!recovered.isEmpty()) {
+                log.info("recovered {} pending writes from journal", recovered.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flushLoop() {
+        int attempt = 0;
+        while (running) {
+            Map<K, PendingWrite<V>> batch;
+            lock.lock();
+            try {
+                long remaining = flushIntervalNanos;
+                while (running && attempt == 0 && !flushNow && pending.size() < batchSize && remaining > 0) {
+                    remaining = flushRequested.awaitNanos(remaining);
+                }
+                batch = takeBatch();
+                flushing = !batch.isEmpty();
+            } catch (InterruptedException e) {
+                continue;
+            } finally {
+                lock.unlock();
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            if (writeBatch(batch)) {
+                attempt = 0;
+                complete(batch);
+            } else {
+                lock.lock();
+                try {
+                    flushing = false;
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(backoffNanos(attempt++));
+                } catch (InterruptedException e) {
+                    // 关闭时中断，由close做最后一次写回
+                }
+            }
+        }
+    }
+
+    private long backoffNanos(int attempt) {
+        long backoff = baseBackoffNanos;
+        for (int i = 0; i < attempt && backoff < maxBackoffNanos; i++) {
+            backoff <<= 1;
+        }
+        return Math.min(backoff, maxBackoffNanos);
+    }
+
+    /**
+     * 须持有锁，复制最早入队的至多batchSize个操作，写回成功前仍保留在队列中
+     */
+    private Map<K, PendingWrite<V>> takeBatch() {
+        Map<K, PendingWrite<V>> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<K, PendingWrite<V>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            Map.Entry<K, PendingWrite<V>> entry = iterator.next();
+            batch.put(entry.getKey(), entry.getValue());
+        }
+        return batch;
+    }
+
+    private boolean writeBatch(Map<K, PendingWrite<V>> batch) {
+        Map<K, V> writes = new LinkedHashMap<>();
+        Set<K> deletes = new HashSet<>();
+        for (Map.Entry<K, PendingWrite<V>> entry : batch.entrySet()) {
+            if (entry.getValue().isDelete()) {
+                deletes.add(entry.getKey());
+            } else {
+                writes.put(entry.getKey(), entry.getValue().value);
+            }
+        }
+        try {
+            if (!deletes.isEmpty()) {
+                writer.deleteAll(deletes);
+            }
+            if (!writes.isEmpty()) {
+                writer.writeAll(writes);
+            }
+            batchCount.increment();
+            writtenCount.add(batch.size());
+            return true;
+        } catch (Exception e) {
+            failureCount.increment();
+            log.warn("write-behind flush of {} entries failed, will retry", batch.size(), e);
+            return false;
+        }
+    }
+
+    private void complete(Map<K, PendingWrite<V>> batch) {
+        lock.lock();
+        try {
+            // 写回期间被再次更新的key保留新操作，等待下一批
+            for (Map.Entry<K, PendingWrite<V>> entry : batch.entrySet()) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+            if (journal != null) {
+                journal.commit(batch);
+                if (journal.size() >= compactThreshold) {
+                    journal.compact(pending);
+                }
+            }
+        } catch (IOException e) {
+            // COMMIT记录丢失只会导致恢复后重复写回，写回本身是幂等的
+            log.warn("failed to update write-behind journal", e);
+        } finally {
+            flushing = false;
+            notFull.signalAll();
+            if (pending.isEmpty()) {
+                flushNow = false;
+                drained.signalAll();
+            }
+            lock.unlock();
+        }
+    }
+
+    public static final class Builder<K, V> {
+        private final Cache<K, V> cache;
+        private final CacheWriter<K, V> writer;
+        private Path journalFile;
+        private Serializer<K> keySerializer;
+        private Serializer<V> valueSerializer;
+        private boolean fsync;
+        private int batchSize = 100;
+        private long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        private int maxPending = 100_000;
+        private long maxBlockNanos = TimeUnit.SECONDS.toNanos(1);
+        private long baseBackoffNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        private long maxBackoffNanos = TimeUnit.SECONDS.toNanos(30);
+        private long compactThreshold = 64L * 1024 * 1024;
+
+        private Builder(Cache<K, V> cache, CacheWriter<K, V> writer) {
+            this.cache = cache;
+            this.writer = writer;
+        }
+
+        public Builder<K, V> journal(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+            this.journalFile = file;
+            this.keySerializer = keySerializer;
+            this.valueSerializer = valueSerializer;
+            return this;
+        }
+
+        /**
+         * @param fsync 是否每次追加日志后强制落盘
+         */
+        public Builder<K, V> fsync(boolean fsync) {
+            this.fsync = fsync;
+            return this;
+        }
+
+        public Builder<K, V> batchSize(int batchSize) {
+            this.batchSize = Math.max(1, batchSize);
+            return this;
+        }
+
+        public Builder<K, V> flushInterval(long duration, TimeUnit unit) {
+            this.flushIntervalNanos = Math.max(1, unit.toNanos(duration));
+            return this;
+        }
+
+        /**
+         * @param maxPending 最大待写key数
+         * @param maxBlock   队列已满时写入方的最长等待时间
+         */
+        public Builder<K, V> maxPending(int maxPending, long maxBlock, TimeUnit unit) {
+            this.maxPending = Math.max(1, maxPending);
+            this.maxBlockNanos = unit.toNanos(maxBlock);
+            return this;
+        }
+
+        public Builder<K, V> retryBackoff(long base, long max, TimeUnit unit) {
+            this.baseBackoffNanos = Math.max(1, unit.toNanos(base));
+            this.maxBackoffNanos = unit.toNanos(max);
+            return this;
+        }
+
+        /**
+         * @param bytes 日志超过该大小时在刷写后压缩
+         */
+        public Builder<K, V> compactThreshold(long bytes) {
+            this.compactThreshold = bytes;
+            return this;
+        }
+
+        public WriteBehindCache<K, V> build() {
+            return new WriteBehindCache<>(this);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.shf.caffeine.writebehind;
+
+import com.shf.caffeine.offheap.Serializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * description :
+ * 写回的追加日志，每条记录为length(int) crc32(int) payload：
+ * <pre>
+ * PUT    : type(1) sequence(long) keyLength(int) key valueLength(int) value
+ * DELETE : type(2) sequence(long) keyLength(int) key
+ * COMMIT : type(3) sequence(long) keyLength(int) key
+ * </pre>
+ * 1、写入缓存前先追加PUT/DELETE，刷写成功后追加COMMIT，序号不超过COMMIT序号的操作视为已写回；
+ * 2、恢复时顺序回放，得到每个key未写回的最新操作；末尾不完整或校验失败的记录视为崩溃时写了一半，予以截断；
+ * 3、文件超过压缩阈值时，以当前全部未写回操作重写日志并原子替换。
+ * fsync为false时只写入操作系统页缓存，可防进程崩溃但不防断电；为true时每次追加后强制落盘。
+ * 非线程安全，由{@link WriteBehindCache}在锁内调用。
+ *
+ * @author agent
+ * @date 2026/10/17 10:56
+ */
+final class WriteJournal<K, V> implements AutoCloseable {
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte COMMIT = 3;
+    private static final int RECORD_HEADER = 8;
+
+    private final Path file;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final boolean fsync;
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private long lastSequence;
+
+    WriteJournal(Path file, Serializer<K> keySerializer, Serializer<V> valueSerializer, boolean fsync) {
+        this.file = file;
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.fsync = fsync;
+    }
+
+    /**
+     * 打开日志并回放，须在其他方法之前调用
+     *
+     * @return 未写回的操作，按首次出现的顺序排列
+     */
+    Map<K, PendingWrite<V>> recover() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        Map<K, PendingWrite<V>> pending = new LinkedHashMap<>();
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        while (position + RECORD_HEADER <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || position + RECORD_HEADER + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + RECORD_HEADER);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            payload.flip();
+            replay(payload, pending);
+            position += RECORD_HEADER + length;
+        }
+        if (position < size) {
+            channel.truncate(position);
+        }
+        channel.position(position);
+        return pending;
+    }
+
+    /**
+     * @return 回放过程中出现的最大序号，新操作的序号须大于该值
+     */
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    void append(K key, PendingWrite<V> write) throws IOException {
+        byte[] keyBytes = keySerializer.serialize(key);
+        byte[] valueBytes = write.isDelete() ? null : valueSerializer.serialize(write.value);
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8 + 4 + keyBytes.length
+                + (valueBytes == null ? 0 : 4 + valueBytes.length));
+        payload.put(write.isDelete() ? DELETE : PUT).putLong(write.sequence).putInt(keyBytes.length).put(keyBytes);
+        if (valueBytes != null) {
+            payload.putInt(valueBytes.length).put(valueBytes);
+        }
+        writeRecord(payload);
+        sync();
+    }
+
+    void commit(Map<K, PendingWrite<V>> written) throws IOException {
+        for (Map.Entry<K, PendingWrite<V>> entry : written.entrySet()) {
+            byte[] keyBytes = keySerializer.serialize(entry.getKey());
+            ByteBuffer payload = ByteBuffer.allocate(1 + 8 + 4 + keyBytes.length);
+            payload.put(COMMIT).putLong(entry.getValue().sequence).putInt(keyBytes.length).put(keyBytes);
+            writeRecord(payload);
+        }
+        sync();
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * 以pending重写日志，写入临时文件后原子替换
+     */
+    void compact(Map<K, PendingWrite<V>> pending) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".compact");
+        FileChannel previous = channel;
+        channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        try {
+            for (Map.Entry<K, PendingWrite<V>> entry : pending.entrySet()) {
+                append(entry.getKey(), entry.getValue());
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            channel.close();
+            channel = previous;
+            throw e;
+        }
+        previous.close();
+        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void replay(ByteBuffer payload, Map<K, PendingWrite<V>> pending) {
+        byte type = payload.get();
+        long sequence = payload.getLong();
+        lastSequence = Math.max(lastSequence, sequence);
+        K key = keySerializer.deserialize(slice(payload));
+        if (type == COMMIT) {
+            PendingWrite<V> current = pending.get(key);
+            if (current != null && current.sequence <= sequence) {
+                pending.remove(key);
+            }
+            return;
+        }
+        V value = type == PUT ? valueSerializer.deserialize(slice(payload)) : null;
+        pending.remove(key);
+        pending.put(key, new PendingWrite<>(value, sequence));
+    }
+
+    private void writeRecord(ByteBuffer payload) throws IOException {
+        payload.flip();
+        crc.reset();
+        crc.update(payload.array(), 0, payload.limit());
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        header.putInt(payload.limit()).putInt((int) crc.getValue()).flip();
+        ByteBuffer[] record = {header, payload};
+        while (header.hasRemaining() || payload.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    private void sync() throws IOException {
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of journal");
+            }
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer payload) {
+        int length = payload.getInt();
+        ByteBuffer field = payload.slice();
+        field.limit(length);
+        payload.position(payload.position() + length);
+        return field;
+    }
+}
@@ -0,0 +1,16 @@
+package com.shf.caffeine.writebehind;
+
+/**
+ * description :
+ * 待写回队列已满且在限定时间内未能腾出空间，本次写入被拒绝，缓存与日志均未修改
+ *
+ * @author agent
+ * @date 2026/10/17 10:56
+ */
+public class WriteQueueFullException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public WriteQueueFullException(int maxPending) {
+        super("write-behind queue is full (" + maxPending + " pending keys)");
+    }
+}
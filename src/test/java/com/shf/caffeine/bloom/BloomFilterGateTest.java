@@ -0,0 +1,64 @@
+package com.shf.caffeine.bloom;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BloomFilterGateTest {
+
+    @Test
+    public void noFalseNegativesAndBoundedFalsePositives() {
+        ScalableBloomFilter<String> filter = new ScalableBloomFilter<>(1_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("key_" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("key_" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other_" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(filter.segmentCount() > 1);
+        assertTrue("fpp=" + falsePositives / 100_000.0, falsePositives < 100_000 * 0.02);
+    }
+
+    @Test
+    public void definiteMissSkipsLoader() {
+        AtomicInteger loads = new AtomicInteger();
+        BloomFilterGate<String, String> gate = new BloomFilterGate<>(Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats()
+                .build(key -> {
+                    loads.incrementAndGet();
+                    return "value_" + key;
+                }), new ScalableBloomFilter<>(100, 0.01));
+
+        List<String> universe = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            universe.add("mock_key_" + i);
+        }
+        gate.populate(universe);
+
+        assertEquals("value_mock_key_1", gate.get("mock_key_1"));
+        assertNull(gate.get("never_valid"));
+        assertEquals(1, loads.get());
+
+        gate.put("new_key", "new_value");
+        assertEquals("new_value", gate.get("new_key"));
+
+        BloomFilterGate.GateStats stats = gate.gateStats();
+        assertEquals(1, stats.rejectedCount());
+        assertEquals(2, stats.passedCount());
+        assertTrue(stats.memoryBytes() > 0);
+    }
+}
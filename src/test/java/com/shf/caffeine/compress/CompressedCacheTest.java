@@ -0,0 +1,96 @@
+package com.shf.caffeine.compress;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Test;
+
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedCacheTest {
+
+    @Test
+    public void smallValuesStayPlainAndLargeValuesRoundTrip() {
+        CompressedCache<String> cache = new CompressedCache<>(Caffeine.newBuilder().maximumSize(100),
+                new StringCodec(64), 10);
+        cache.put("small", "{\"id\":1}");
+        String large = "[" + json(1) + "," + json(2) + "," + json(3) + "]";
+        cache.put("large", large);
+
+        assertEquals("{\"id\":1}", cache.getIfPresent("small"));
+        assertEquals(large, cache.getIfPresent("large"));
+        assertEquals(large, cache.getIfPresent("large"));
+        assertNull(cache.getIfPresent("absent"));
+
+        CompressedCache.CompressionStats stats = cache.stats();
+        assertEquals(1, stats.plainWriteCount());
+        assertEquals(1, stats.compressedWriteCount());
+        assertTrue(stats.compressionRatio() > 2);
+        assertEquals(2, stats.compressedHitCount());
+        assertEquals(1, stats.hotHitCount());
+    }
+
+    @Test
+    public void overwriteIsNotShadowedByHotSet() {
+        CompressedCache<String> cache = new CompressedCache<>(Caffeine.newBuilder().maximumSize(100),
+                new StringCodec(64), 10);
+        cache.put("k", json(1));
+        assertEquals(json(1), cache.getIfPresent("k"));
+        cache.put("k", json(2));
+        assertEquals(json(2), cache.getIfPresent("k"));
+        assertEquals(json(3), cache.get("other", key -> json(3)));
+    }
+
+    @Test
+    public void trainedDictionaryImprovesRatioOfSmallDocuments() {
+        DictionaryTrainer trainer = new DictionaryTrainer();
+        for (int i = 0; i < 200; i++) {
+            trainer.add(json(i));
+        }
+        byte[] dictionary = trainer.train(DictionaryTrainer.MAX_DICTIONARY_SIZE);
+        assertTrue(dictionary.length > 0);
+
+        StringCodec plain = new StringCodec(64);
+        StringCodec trained = new StringCodec(64, dictionary, Deflater.DEFAULT_COMPRESSION);
+        long plainBytes = 0;
+        long trainedBytes = 0;
+        for (int i = 1000; i < 1100; i++) {
+            Object withDictionary = trained.encode(json(i));
+            assertTrue(StringCodec.isCompressed(withDictionary));
+            assertEquals(json(i), trained.decode(withDictionary));
+            plainBytes += StringCodec.storedSize(plain.encode(json(i)));
+            trainedBytes += StringCodec.storedSize(withDictionary);
+        }
+        assertTrue(plainBytes > trainedBytes * 3 / 2);
+    }
+
+    @Test
+    public void incompressibleValuesAreKeptAsIs() {
+        StringCodec codec = new StringCodec(16);
+        String random = "q8Zr!7xP@2mK#v9L";
+        assertFalse(StringCodec.isCompressed(codec.encode(random)));
+    }
+
+    @Test(timeout = 5_000, expected = IllegalStateException.class)
+    public void decodingWithoutDictionaryFailsFast() {
+        DictionaryTrainer trainer = new DictionaryTrainer();
+        for (int i = 0; i < 50; i++) {
+            trainer.add(json(i));
+        }
+        StringCodec trained = new StringCodec(64, trainer.train(4096), Deflater.DEFAULT_COMPRESSION);
+        Object stored = trained.encode(json(1));
+        assertTrue(StringCodec.isCompressed(stored));
+        new StringCodec(64).decode(stored);
+    }
+
+    private static String json(int id) {
+        return "{\"id\":" + id + ",\"type\":\"order\",\"status\":\"SHIPPED\",\"customer\":{\"name\":\"customer_"
+                + id + "\",\"email\":\"customer_" + id + "@example.com\",\"tier\":\"gold\"},"
+                + "\"items\":[{\"sku\":\"SKU-" + (id % 97) + "\",\"quantity\":" + (id % 5 + 1)
+                + ",\"price\":19.99},{\"sku\":\"SKU-" + (id % 89) + "\",\"quantity\":1,\"price\":5.49}],"
+                + "\"shipping\":{\"carrier\":\"express\",\"address\":\"1 Main Street\",\"country\":\"US\"}}";
+    }
+}
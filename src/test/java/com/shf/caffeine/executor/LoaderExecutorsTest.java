@@ -0,0 +1,54 @@
+package com.shf.caffeine.executor;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LoaderExecutorsTest {
+
+    @Test
+    public void blockingLoadsRunConcurrently() throws InterruptedException {
+        ExecutorService executor = LoaderExecutors.newVirtualThreadPerTaskExecutor();
+        final AsyncLoadingCache<Integer, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .executor(executor)
+                .buildAsync(key -> {
+                    Thread.sleep(200);
+                    return "value_" + key;
+                });
+
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            futures.add(cache.get(i));
+        }
+        for (int i = 0; i < 64; i++) {
+            assertEquals("value_" + i, futures.get(i).join());
+        }
+        // 64个阻塞加载并发执行，总耗时应接近单次加载耗时
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void fallbackMatchesRuntime() {
+        boolean java21 = false;
+        try {
+            Thread.class.getMethod("ofVirtual");
+            java21 = true;
+        } catch (NoSuchMethodException ignored) {
+        }
+        assertEquals(java21, LoaderExecutors.isVirtualThreadSupported());
+    }
+}
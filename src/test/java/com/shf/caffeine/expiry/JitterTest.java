@@ -0,0 +1,103 @@
+package com.shf.caffeine.expiry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JitterTest {
+    private static final long DURATION = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    public void jitteredDurationsStayWithinSpread() {
+        Jitter[] jitters = {Jitter.uniform(0.2), Jitter.exponential(0.05, 0.2), Jitter.hashed(0.2)};
+        for (Jitter jitter : jitters) {
+            Set<Long> distinct = new HashSet<>();
+            for (int i = 0; i < 1_000; i++) {
+                long value = jitter.apply("mock_key_" + i, DURATION);
+                assertTrue(value <= DURATION && value >= DURATION * 0.8);
+                distinct.add(value);
+            }
+            assertTrue(distinct.size() > 100);
+        }
+    }
+
+    @Test
+    public void hashedJitterIsDeterministicPerKey() {
+        Jitter jitter = Jitter.hashed(0.5);
+        assertEquals(jitter.apply("mock_key", DURATION), jitter.apply("mock_key", DURATION));
+    }
+
+    @Test
+    public void expirySpreadsBulkLoadedKeys() {
+        AtomicLong nanos = new AtomicLong();
+        final Cache<String, String> cache = Caffeine.newBuilder()
+                .expireAfter(JitteredExpiry.<String, String>afterWrite(5, TimeUnit.SECONDS, Jitter.uniform(0.2)))
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .build();
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("mock_key_" + i, "mock_value");
+        }
+
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(4_500));
+        cache.cleanUp();
+        long remaining = cache.estimatedSize();
+        assertTrue(remaining > 300 && remaining < 700);
+
+        // 可变过期由时间轮按秒级精度驱逐，留出一个桶的余量
+        nanos.set(DURATION + TimeUnit.SECONDS.toNanos(2));
+        cache.cleanUp();
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    public void refreshIsDeferredByOffset() throws InterruptedException {
+        AtomicInteger version = new AtomicInteger();
+        AtomicLong nanos = new AtomicLong();
+        final LoadingCache<String, String> cache = Caffeine.newBuilder()
+                .refreshAfterWrite(1, TimeUnit.SECONDS)
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .build(new JitteredRefreshLoader<>(key -> "v" + version.incrementAndGet(),
+                        200, TimeUnit.MILLISECONDS, (key, duration) -> duration / 2));
+
+        assertEquals("v1", cache.get("mock_key"));
+        nanos.set(TimeUnit.SECONDS.toNanos(2));
+        assertEquals("v1", cache.get("mock_key"));
+        // 刷新被推迟100ms，期间仍返回旧值且不重复触发
+        assertEquals("v1", cache.get("mock_key"));
+        assertEquals(1, version.get());
+
+        Thread.sleep(300);
+        assertEquals("v2", cache.get("mock_key"));
+    }
+
+    @Test
+    public void deferredReloadCompletesWhenExecutorRejects() throws Exception {
+        JitteredRefreshLoader<String, String> loader = new JitteredRefreshLoader<>(key -> "v",
+                20, TimeUnit.MILLISECONDS, (key, duration) -> duration / 2);
+        CompletableFuture<String> future = loader.asyncReload("mock_key", "v", task -> {
+            throw new RejectedExecutionException("saturated");
+        });
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
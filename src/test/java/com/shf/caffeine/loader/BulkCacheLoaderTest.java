@@ -0,0 +1,84 @@
+package com.shf.caffeine.loader;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkCacheLoaderTest {
+
+    @Test
+    public void getAllSplitsMissesIntoChunks() {
+        AtomicInteger calls = new AtomicInteger();
+        final LoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats()
+                .build(new BulkCacheLoader<>(keys -> {
+                    calls.incrementAndGet();
+                    assertTrue(keys.size() <= 3);
+                    return values(keys);
+                }, 3));
+
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            keys.add("mock_key_" + i);
+        }
+
+        Map<String, String> result = cache.getAll(keys);
+        assertEquals(10, result.size());
+        assertEquals("value_mock_key_7", result.get("mock_key_7"));
+        assertEquals(4, calls.get());
+
+        cache.getAll(keys);
+        assertEquals(4, calls.get());
+        assertEquals(10, cache.stats().hitCount());
+    }
+
+    @Test
+    public void singleKeyGetUsesBatchLoader() {
+        final LoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .build(new BulkCacheLoader<>(BulkCacheLoaderTest::values, 3));
+
+        assertEquals("value_mock_key", cache.get("mock_key"));
+    }
+
+    @Test
+    public void chunkFailureFailsWholeLoad() {
+        final LoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .build(new BulkCacheLoader<>(keys -> {
+                    if (keys.contains("bad")) {
+                        throw new IllegalStateException("backend down");
+                    }
+                    return values(keys);
+                }, 1));
+
+        try {
+            cache.getAll(Arrays.asList("good", "bad"));
+            fail();
+        } catch (CompletionException | IllegalStateException e) {
+            assertEquals(0, cache.estimatedSize());
+        }
+    }
+
+    private static Map<String, String> values(Set<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : keys) {
+            values.put(key, "value_" + key);
+        }
+        return values;
+    }
+}
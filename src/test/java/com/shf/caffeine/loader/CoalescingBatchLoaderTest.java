@@ -0,0 +1,94 @@
+package com.shf.caffeine.loader;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CoalescingBatchLoaderTest {
+
+    @Test
+    public void asyncMissesWithinWindowShareOneBatch() {
+        AtomicInteger calls = new AtomicInteger();
+        final AsyncLoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .buildAsync(new CoalescingBatchLoader<>(keys -> {
+                    calls.incrementAndGet();
+                    return values(keys);
+                }, 64, 50, TimeUnit.MILLISECONDS));
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(cache.get("mock_key_" + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals("value_mock_key_" + i, futures.get(i).join());
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void fullBatchIsDispatchedBeforeWindowEnds() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        final LoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .build(new CoalescingBatchLoader<>(keys -> {
+                    calls.incrementAndGet();
+                    return values(keys);
+                }, 4, 1, TimeUnit.MINUTES));
+
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String key = "mock_key_" + i;
+            results.add(threads.submit(() -> {
+                start.await();
+                return cache.get(key);
+            }));
+        }
+        start.countDown();
+        for (int i = 0; i < 4; i++) {
+            assertEquals("value_mock_key_" + i, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        threads.shutdown();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void batchFailureFailsEveryCaller() {
+        final AsyncLoadingCache<String, String> cache = Caffeine.newBuilder()
+                .buildAsync(new CoalescingBatchLoader<String, String>(keys -> {
+                    throw new IllegalStateException("backend down");
+                }, 64, 10, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<String> first = cache.get("a");
+        CompletableFuture<String> second = cache.get("b");
+        assertTrue(first.handle((v, e) -> e != null).join());
+        assertTrue(second.handle((v, e) -> e != null).join());
+    }
+
+    private static Map<String, String> values(Set<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : keys) {
+            values.put(key, "value_" + key);
+        }
+        return values;
+    }
+}
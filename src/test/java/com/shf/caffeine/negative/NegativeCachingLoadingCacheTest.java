@@ -0,0 +1,73 @@
+package com.shf.caffeine.negative;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NegativeCachingLoadingCacheTest {
+    private static final String MOCK_KEY = "mock_key";
+    private static final String MOCK_VALUE = "mock_value";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void absentKeyLoadsOncePerTtl() {
+        NegativeCachingLoadingCache<String, String> cache = newCache();
+
+        assertNull(cache.get(MOCK_KEY));
+        assertNull(cache.get(MOCK_KEY));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().loadFailureCount());
+        // 写入标记后的复查不计入原缓存的统计
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(0, cache.stats().hitCount());
+        assertEquals(1, cache.negativeStats().hitCount());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertNull(cache.get(MOCK_KEY));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void putClearsAbsentMarker() {
+        NegativeCachingLoadingCache<String, String> cache = newCache();
+
+        assertNull(cache.get(MOCK_KEY));
+        assertTrue(cache.isKnownAbsent(MOCK_KEY));
+
+        cache.put(MOCK_KEY, MOCK_VALUE);
+        assertFalse(cache.isKnownAbsent(MOCK_KEY));
+        assertEquals(MOCK_VALUE, cache.get(MOCK_KEY));
+    }
+
+    @Test
+    public void markersHaveOwnSizeBudget() {
+        NegativeCachingLoadingCache<String, String> cache = newCache();
+        for (int i = 0; i < 100; i++) {
+            cache.get("missing_" + i);
+        }
+        cache.cleanUp();
+        assertTrue(cache.negativeSize() <= 10);
+    }
+
+    private NegativeCachingLoadingCache<String, String> newCache() {
+        return new NegativeCachingLoadingCache<>(Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats()
+                .build(key -> {
+                    loads.incrementAndGet();
+                    return null;
+                }), 30, TimeUnit.SECONDS, 10, ticker, Runnable::run);
+    }
+}
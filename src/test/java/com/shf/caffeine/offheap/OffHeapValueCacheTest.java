@@ -0,0 +1,65 @@
+package com.shf.caffeine.offheap;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapValueCacheTest {
+
+    @Test
+    public void chunksAreRecycledAfterRemoval() {
+        SlabAllocator allocator = new SlabAllocator(1024, 2048, 64);
+        OffHeapValueCache<String, String> cache = new OffHeapValueCache<>(Caffeine.newBuilder()
+                .maximumWeight(1 << 20)
+                .executor(Runnable::run), allocator, Serializer.string());
+
+        assertTrue(cache.put("a", "value_a"));
+        assertEquals("value_a", cache.get("a"));
+        assertEquals(64, allocator.usedBytes());
+
+        // 覆盖后旧块被释放
+        cache.put("a", "value_a2");
+        assertEquals(64, allocator.usedBytes());
+        assertEquals(Integer.valueOf(8), cache.read("a", buffer -> buffer.remaining()));
+
+        cache.invalidate("a");
+        assertEquals(0, allocator.usedBytes());
+        assertNull(cache.get("a"));
+        assertEquals(1024, allocator.reservedBytes());
+    }
+
+    @Test
+    public void allocationFailureLeavesEntryAbsent() {
+        SlabAllocator allocator = new SlabAllocator(1024, 1024, 64);
+        OffHeapValueCache<String, byte[]> cache = new OffHeapValueCache<>(Caffeine.newBuilder()
+                .maximumWeight(1 << 20)
+                .executor(Runnable::run), allocator, Serializer.byteArray());
+
+        assertTrue(cache.put("small", new byte[10]));
+        // 唯一的slab已归属64字节级别，更大的值无法分配
+        assertFalse(cache.put("large", new byte[100]));
+        assertFalse(cache.put("huge", new byte[2048]));
+        assertNull(cache.get("large"));
+        assertEquals(2, cache.allocationFailureCount());
+    }
+
+    @Test
+    public void maximumWeightBoundsOffHeapBytes() {
+        SlabAllocator allocator = new SlabAllocator(4096, 1 << 20, 64);
+        OffHeapValueCache<Integer, byte[]> cache = new OffHeapValueCache<>(Caffeine.newBuilder()
+                .maximumWeight(1000)
+                .executor(Runnable::run), allocator, Serializer.byteArray());
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, new byte[100]);
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.estimatedSize() <= 10);
+        assertEquals(cache.estimatedSize() * 128, allocator.usedBytes());
+    }
+}
@@ -0,0 +1,74 @@
+package com.shf.caffeine.offheap;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TieredCacheTest {
+
+    @Test
+    public void evictedEntriesAreDemotedAndPromotedBack() {
+        AtomicInteger loads = new AtomicInteger();
+        TieredCache<String, String> cache = new TieredCache<>(Caffeine.newBuilder()
+                .maximumSize(1)
+                .executor(Runnable::run), new OffHeapStore<>(Serializer.string(), 4, 1024));
+
+        assertEquals("value_a", cache.get("a", key -> "value_" + key));
+        cache.put("b", "value_b");
+        cache.l1().cleanUp();
+
+        assertEquals(1, cache.l1().estimatedSize());
+        assertEquals(1, cache.l2().size());
+
+        // 任一key均可从两级中取回，且不再触发加载
+        for (String key : new String[]{"a", "b"}) {
+            assertEquals("value_" + key, cache.get(key, k -> {
+                loads.incrementAndGet();
+                return null;
+            }));
+            cache.l1().cleanUp();
+        }
+        assertEquals(0, loads.get());
+
+        TieredCache.TierStats stats = cache.stats();
+        assertTrue(stats.l2HitCount() >= 1);
+        assertEquals(1, stats.missCount());
+        assertTrue(stats.demotionCount() >= 2);
+    }
+
+    @Test
+    public void slabsAreRecycledFifo() {
+        OffHeapStore<String, String> store = new OffHeapStore<>(Serializer.string(), 2, 16);
+        store.put("k1", "12345678");
+        store.put("k2", "12345678");
+        store.put("k3", "12345678");
+        store.put("k4", "12345678");
+        // 第三个分片写入时回收第一个分片
+        store.put("k5", "12345678");
+
+        assertNull(store.get("k1"));
+        assertNull(store.get("k2"));
+        assertEquals("12345678", store.get("k5"));
+        assertEquals(2, store.evictionCount());
+        assertFalse(store.put("big", "12345678901234567"));
+    }
+
+    @Test
+    public void overwrittenKeyIsNotCountedAsEvicted() {
+        OffHeapStore<String, String> store = new OffHeapStore<>(Serializer.string(), 3, 8);
+        store.put("k1", "1234");
+        store.put("k2", "12345678");
+        store.put("k1", "56781234");
+        // 回收第一个分片时k1已位于第三个分片
+        store.put("k3", "12345678");
+
+        assertEquals(0, store.evictionCount());
+        assertEquals("56781234", store.get("k1"));
+    }
+}
@@ -0,0 +1,188 @@
+package com.shf.caffeine.primitive;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveCacheTest {
+
+    @Test
+    public void matchesHashMapUnderRandomOperations() {
+        LongLongCache cache = PrimitiveCacheBuilder.newBuilder()
+                .maximumSize(10_000)
+                .concurrencyLevel(4)
+                .buildLongLong();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // 键空间小于容量，不触发淘汰，校验探测与回移删除的正确性
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(3) == 0) {
+                cache.invalidate(key);
+                expected.remove(key);
+            } else {
+                long value = random.nextLong();
+                cache.put(key, value);
+                expected.put(key, value);
+            }
+        }
+        assertEquals(expected.size(), cache.estimatedSize());
+        for (long key = -2_500; key < 2_500; key++) {
+            Long value = expected.get(key);
+            assertEquals(value != null, cache.containsKey(key));
+            if (value != null) {
+                assertEquals(value.longValue(), cache.getIfPresent(key, 0));
+            }
+        }
+    }
+
+    @Test
+    public void clockKeepsRecentlyReadEntries() {
+        LongIntCache cache = PrimitiveCacheBuilder.newBuilder()
+                .maximumSize(100)
+                .concurrencyLevel(1)
+                .recordStats()
+                .buildLongInt();
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+        for (int i = 0; i < 10; i++) {
+            cache.getIfPresent(i, -1);
+        }
+        for (int i = 100; i < 150; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(100, cache.estimatedSize());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, cache.getIfPresent(i, -1));
+        }
+        CacheStats stats = cache.stats();
+        assertEquals(50, stats.evictionCount());
+        assertEquals(20, stats.hitCount());
+    }
+
+    @Test
+    public void expireAfterWriteAndAccess() {
+        AtomicLong time = new AtomicLong();
+        LongObjectCache<String> cache = PrimitiveCacheBuilder.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .expireAfterAccess(3, TimeUnit.SECONDS)
+                .ticker(time::get)
+                .buildLongObject();
+        cache.put(1, "a");
+        cache.put(2, "b");
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals("a", cache.getIfPresent(1));
+        time.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals("a", cache.getIfPresent(1));
+        // 2未被访问，超过3秒后过期
+        assertNull(cache.getIfPresent(2));
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(7));
+        assertNull(cache.getIfPresent(1));
+        assertEquals(2, cache.estimatedSize());
+        cache.cleanUp();
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    public void loaderRunsOncePerMissAndNullIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        LongObjectCache<String> cache = PrimitiveCacheBuilder.newBuilder()
+                .maximumSize(10)
+                .recordStats()
+                .buildLongObject();
+
+        assertEquals("v1", cache.get(1, key -> {
+            loads.incrementAndGet();
+            return "v" + key;
+        }));
+        assertEquals("v1", cache.get(1, key -> "other"));
+        assertNull(cache.get(2, key -> null));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().loadSuccessCount());
+        assertEquals(1, cache.stats().loadFailureCount());
+    }
+
+    @Test
+    public void segmentLimitsSumToMaximumSize() {
+        LongLongCache cache = PrimitiveCacheBuilder.newBuilder()
+                .maximumSize(100)
+                .concurrencyLevel(16)
+                .buildLongLong();
+        for (long key = 0; key < 10_000; key++) {
+            cache.put(key, key);
+            assertTrue(cache.estimatedSize() <= 100);
+        }
+    }
+
+    @Test
+    public void maximumSizeBelowConcurrencyLevelIsNotExceeded() {
+        long[][] cases = {{3, 16}, {5, 8}, {7, 4}, {1, 16}};
+        for (long[] config : cases) {
+            LongIntCache cache = PrimitiveCacheBuilder.newBuilder()
+                    .maximumSize(config[0])
+                    .concurrencyLevel((int) config[1])
+                    .buildLongInt();
+            for (long key = 0; key < 1_000; key++) {
+                cache.put(key, 1);
+                assertTrue(cache.estimatedSize() <= config[0]);
+            }
+            assertEquals(config[0], cache.estimatedSize());
+        }
+    }
+
+    @Test
+    public void slowLoadDoesNotBlockReadsAndIsShared() throws Exception {
+        LongObjectCache<String> cache = PrimitiveCacheBuilder.newBuilder()
+                .maximumSize(10)
+                .concurrencyLevel(1)
+                .buildLongObject();
+        cache.put(1, "a");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LongFunction<String> loader = key -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "v" + key;
+        };
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(2, loader));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get(2, loader));
+
+        // 唯一分段在加载期间仍可读写
+        CompletableFuture<String> hit = CompletableFuture.supplyAsync(() -> cache.getIfPresent(1));
+        assertEquals("a", hit.get(5, TimeUnit.SECONDS));
+        cache.put(3, "c");
+
+        release.countDown();
+        assertEquals("v2", first.get(5, TimeUnit.SECONDS));
+        assertEquals("v2", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals("v2", cache.getIfPresent(2));
+    }
+}
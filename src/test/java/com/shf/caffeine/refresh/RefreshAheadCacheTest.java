@@ -0,0 +1,46 @@
+package com.shf.caffeine.refresh;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shf.caffeine.scheduler.HashedTimingWheel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class RefreshAheadCacheTest {
+    private final HashedTimingWheel wheel = new HashedTimingWheel("refresh-ahead", 10, TimeUnit.MILLISECONDS, 64);
+    private final ConcurrentMap<String, AtomicInteger> versions = new ConcurrentHashMap<>();
+
+    @After
+    public void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    public void refreshesHotKeysAndSkipsColdKeys() throws InterruptedException {
+        RefreshAheadCache<String, String> cache = new RefreshAheadCache<>(Caffeine.newBuilder()
+                .maximumSize(100)
+                .executor(Runnable::run), key -> key + "_v" + versions
+                .computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet(),
+                200, 50, TimeUnit.MILLISECONDS, 3, wheel);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("hot_v1", cache.get("hot"));
+        }
+        assertEquals("cold_v1", cache.get("cold"));
+
+        Thread.sleep(230);
+
+        // 未经读取触发，热点key已被刷新，冷key保持原值且不再跟踪
+        assertEquals("hot_v2", cache.delegate().getIfPresent("hot"));
+        assertEquals("cold_v1", cache.delegate().getIfPresent("cold"));
+        assertEquals(1, cache.refreshCount());
+        assertEquals(1, cache.coldSkipCount());
+        assertEquals(1, cache.trackedSize());
+    }
+}
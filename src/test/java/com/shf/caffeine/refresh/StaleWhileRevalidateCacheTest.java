@@ -0,0 +1,74 @@
+package com.shf.caffeine.refresh;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class StaleWhileRevalidateCacheTest {
+    private static final String MOCK_KEY = "mock_key";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger version = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    @Test
+    public void servesStaleWhileRefreshing() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+
+        assertEquals("v1", cache.get(MOCK_KEY));
+        assertEquals(1, cache.freshCount());
+
+        advance(6);
+        // 同步executor下刷新在本次读取中完成，但本次仍返回旧值
+        assertEquals("v1", cache.get(MOCK_KEY));
+        assertEquals(1, cache.staleCount());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), cache.staleness().max(), TimeUnit.SECONDS.toNanos(1) * 0.04);
+
+        assertEquals("v2", cache.get(MOCK_KEY));
+        assertEquals(2, cache.freshCount());
+    }
+
+    @Test
+    public void servesStaleOnErrorUntilMaxStale() {
+        StaleWhileRevalidateCache<String, String> cache = newCache();
+        assertEquals("v1", cache.get(MOCK_KEY));
+
+        failing.set(true);
+        advance(30);
+        assertEquals("v1", cache.get(MOCK_KEY));
+        advance(20);
+        assertEquals("v1", cache.get(MOCK_KEY));
+        assertEquals(2, cache.refreshFailureCount());
+        assertEquals(2, cache.staleCount());
+
+        advance(11);
+        try {
+            cache.get(MOCK_KEY);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    private StaleWhileRevalidateCache<String, String> newCache() {
+        return new StaleWhileRevalidateCache<>(Caffeine.newBuilder()
+                .maximumSize(100)
+                .ticker(nanos::get)
+                .executor(Runnable::run), key -> {
+                    if (failing.get()) {
+                        throw new IllegalStateException("backend down");
+                    }
+                    return "v" + version.incrementAndGet();
+                }, 5, 60, TimeUnit.SECONDS);
+    }
+
+    private void advance(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
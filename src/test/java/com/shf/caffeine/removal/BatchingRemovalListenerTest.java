@@ -0,0 +1,143 @@
+package com.shf.caffeine.removal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchingRemovalListenerTest {
+
+    @Test
+    public void deliversEvictionsInBatches() throws InterruptedException {
+        List<RemovalEvent<Integer, Integer>> received = Collections.synchronizedList(new ArrayList<>());
+        BatchingRemovalListener<Integer, Integer> listener = new BatchingRemovalListener<>(received::addAll,
+                1 << 16, 512, 5, TimeUnit.MILLISECONDS, OverflowPolicy.BLOCK, 1);
+        Cache<Integer, Integer> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .executor(Runnable::run)
+                .evictionListener(listener)
+                .build();
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, i);
+        }
+        cache.cleanUp();
+        listener.close();
+
+        assertEquals(9_900, received.size());
+        assertEquals(9_900, listener.deliveredCount());
+        assertTrue(listener.batchCount() < 9_900 / 10);
+        assertTrue(received.stream().allMatch(event -> event.cause() == RemovalCause.SIZE));
+    }
+
+    @Test
+    public void preservesPerKeyOrder() throws InterruptedException {
+        List<RemovalEvent<String, Integer>> received = Collections.synchronizedList(new ArrayList<>());
+        BatchingRemovalListener<String, Integer> listener = new BatchingRemovalListener<>(received::addAll,
+                1024, 64, 1, TimeUnit.MILLISECONDS, OverflowPolicy.BLOCK, 1);
+        Cache<String, Integer> cache = Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .removalListener(listener)
+                .build();
+        for (int i = 0; i < 5_000; i++) {
+            cache.put("key", i);
+        }
+        cache.invalidate("key");
+        listener.close();
+
+        assertEquals(5_000, received.size());
+        for (int i = 0; i < received.size(); i++) {
+            assertEquals(i, received.get(i).value().intValue());
+        }
+        assertEquals(RemovalCause.EXPLICIT, received.get(4_999).cause());
+    }
+
+    @Test
+    public void dropPolicyReportsDepthAndDrops() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingRemovalListener<Integer, Integer> listener = new BatchingRemovalListener<>(events -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 16, 1, 1, TimeUnit.MILLISECONDS, OverflowPolicy.DROP, 1);
+
+        for (int i = 0; i < 100; i++) {
+            listener.onRemoval(i, i, RemovalCause.EXPLICIT);
+        }
+        // 投递线程可能已取走一个通知并阻塞在监听器中
+        assertEquals(16, listener.queueDepth());
+        assertEquals(16, listener.maxQueueDepth());
+        assertTrue(listener.droppedCount() >= 100 - 17);
+
+        release.countDown();
+        listener.close();
+        assertEquals(100, listener.deliveredCount() + listener.droppedCount());
+    }
+
+    @Test
+    public void samplePolicyThinsEventsUnderPressure() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingRemovalListener<Integer, Integer> listener = new BatchingRemovalListener<>(events -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 64, 64, 1, TimeUnit.HOURS, OverflowPolicy.SAMPLE, 4);
+
+        for (int i = 0; i < 48; i++) {
+            listener.onRemoval(i, i, RemovalCause.SIZE);
+        }
+        assertEquals(0, listener.droppedCount());
+        // 超过3/4后每4个保留1个
+        for (int i = 0; i < 40; i++) {
+            listener.onRemoval(i, i, RemovalCause.SIZE);
+        }
+        assertEquals(58, listener.queueDepth());
+        assertEquals(30, listener.droppedCount());
+
+        release.countDown();
+        listener.close();
+        assertEquals(58, listener.deliveredCount());
+    }
+
+    @Test
+    public void everyEventRacingWithCloseIsDeliveredOrDropped() throws InterruptedException {
+        List<RemovalEvent<Integer, Integer>> received = Collections.synchronizedList(new ArrayList<>());
+        BatchingRemovalListener<Integer, Integer> listener = new BatchingRemovalListener<>(received::addAll,
+                256, 32, 1, TimeUnit.MILLISECONDS, OverflowPolicy.BLOCK, 1);
+        int producers = 4;
+        int perProducer = 20_000;
+        CountDownLatch started = new CountDownLatch(producers);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < perProducer; i++) {
+                    listener.onRemoval(i, i, RemovalCause.SIZE);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        started.await();
+        listener.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(received.size(), listener.deliveredCount());
+        assertEquals(producers * perProducer, listener.deliveredCount() + listener.droppedCount());
+        assertEquals(0, listener.queueDepth());
+    }
+}
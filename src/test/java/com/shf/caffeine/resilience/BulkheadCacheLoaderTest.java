@@ -0,0 +1,115 @@
+package com.shf.caffeine.resilience;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkheadCacheLoaderTest {
+
+    @Test
+    public void limitsConcurrentLoadsAndRejectsOverflow() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("sample", 2, 2, 2, TimeUnit.SECONDS);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        final LoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .build(new BulkheadCacheLoader<>(key -> {
+                    peak.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    release.await();
+                    concurrent.decrementAndGet();
+                    return "value_" + key;
+                }, bulkhead));
+
+        ExecutorService threads = Executors.newFixedThreadPool(5);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String key = "mock_key_" + i;
+            results.add(threads.submit(() -> cache.get(key)));
+        }
+        while (bulkhead.inFlight() < 2 || bulkhead.queueDepth() < 2) {
+            Thread.sleep(5);
+        }
+
+        // 在途与排队均已满，第5个请求立即被拒绝
+        Future<String> overflow = threads.submit(() -> cache.get("mock_key_overflow"));
+        try {
+            overflow.get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BulkheadFullException);
+        }
+        assertEquals(1, bulkhead.rejectedCount());
+
+        release.countDown();
+        for (int i = 0; i < 4; i++) {
+            assertEquals("value_mock_key_" + i, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        threads.shutdown();
+        assertEquals(2, peak.get());
+        assertEquals(0, bulkhead.queueDepth());
+        assertEquals(4, bulkhead.waitTime().count());
+    }
+
+    @Test
+    public void waitTimeoutRejects() {
+        Bulkhead bulkhead = new Bulkhead("sample", 1, 10, 20, TimeUnit.MILLISECONDS);
+        bulkhead.acquire();
+        try {
+            bulkhead.acquire();
+            fail();
+        } catch (BulkheadFullException expected) {
+            assertEquals(1, bulkhead.rejectedCount());
+            assertTrue(bulkhead.waitTime().max() >= TimeUnit.MILLISECONDS.toNanos(20));
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    @Test
+    public void newArrivalDoesNotOvertakeQueuedWaiter() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("sample", 1, 1, 5, TimeUnit.SECONDS);
+        AtomicInteger order = new AtomicInteger();
+        AtomicInteger waiterOrder = new AtomicInteger();
+        bulkhead.acquire();
+        Thread waiter = new Thread(() -> {
+            bulkhead.acquire();
+            waiterOrder.set(order.incrementAndGet());
+            bulkhead.release();
+        });
+        waiter.start();
+        while (bulkhead.queueDepth() < 1) {
+            Thread.sleep(5);
+        }
+        // 确保排队者已阻塞在信号量上
+        Thread.sleep(50);
+
+        bulkhead.release();
+        int arrivalOrder = 0;
+        try {
+            bulkhead.acquire();
+            arrivalOrder = order.incrementAndGet();
+            bulkhead.release();
+        } catch (BulkheadFullException e) {
+            // 排队已满时被拒绝，同样没有插队
+        }
+        waiter.join(5_000);
+
+        assertEquals(1, waiterOrder.get());
+        assertTrue(arrivalOrder == 0 || arrivalOrder == 2);
+    }
+}
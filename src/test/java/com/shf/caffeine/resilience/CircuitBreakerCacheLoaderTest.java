@@ -0,0 +1,148 @@
+package com.shf.caffeine.resilience;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CircuitBreakerCacheLoaderTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicBoolean down = new AtomicBoolean(true);
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @Test
+    public void opensShortCircuitsAndRecoversThroughProbe() {
+        CircuitBreaker breaker = newBreaker();
+        final LoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats()
+                .build(CircuitBreakerCacheLoader.of(this::getValue, breaker));
+
+        for (int i = 0; i < 4; i++) {
+            load(cache, "mock_key_" + i);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(4, backendCalls.get());
+
+        // 打开期间不访问后端
+        assertTrue(load(cache, "mock_key") instanceof CircuitBreakerOpenException);
+        assertEquals(4, backendCalls.get());
+        assertEquals(1, breaker.rejectedCount());
+
+        // 半开探测失败，熔断时长翻倍
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        load(cache, "mock_key");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(TimeUnit.SECONDS.toNanos(2), breaker.currentOpenNanos());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        down.set(false);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals("value_mock_key", cache.get("mock_key"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    public void partitionsAreIsolated() {
+        CircuitBreakerCacheLoader<String, String> loader = CircuitBreakerCacheLoader.partitioned(key -> {
+            if (key.startsWith("order")) {
+                throw new IllegalStateException("order backend down");
+            }
+            return "value_" + key;
+        }, key -> key.substring(0, key.indexOf('_')), this::newBreaker);
+        final LoadingCache<String, String> cache = Caffeine.newBuilder().build(loader);
+
+        for (int i = 0; i < 4; i++) {
+            load(cache, "order_" + i);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, loader.breaker("order").state());
+        assertEquals("value_user_1", cache.get("user_1"));
+        assertEquals(CircuitBreaker.State.CLOSED, loader.breaker("user").state());
+        assertFalse(loader.breakers().containsKey("default"));
+    }
+
+    @Test
+    public void getAllAndRefreshReachDelegateThroughBreaker() {
+        AtomicInteger loadAllCalls = new AtomicInteger();
+        AtomicInteger reloadCalls = new AtomicInteger();
+        CircuitBreaker breaker = newBreaker();
+        CacheLoader<String, String> delegate = new CacheLoader<String, String>() {
+            @Override
+            public String load(String key) {
+                throw new AssertionError("single-key load must not be used");
+            }
+
+            @Override
+            public Map<String, String> loadAll(Iterable<? extends String> keys) {
+                loadAllCalls.incrementAndGet();
+                Map<String, String> result = new HashMap<>();
+                keys.forEach(key -> result.put(key, "value_" + key));
+                return result;
+            }
+
+            @Override
+            public String reload(String key, String oldValue) {
+                reloadCalls.incrementAndGet();
+                return "reloaded_" + key;
+            }
+        };
+        final LoadingCache<String, String> cache = Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .build(CircuitBreakerCacheLoader.of(delegate, breaker));
+
+        Map<String, String> values = cache.getAll(Arrays.asList("a", "b", "c"));
+        assertEquals(3, values.size());
+        assertEquals("value_b", values.get("b"));
+        assertEquals(1, loadAllCalls.get());
+
+        cache.refresh("a");
+        assertEquals("reloaded_a", cache.getIfPresent("a"));
+        assertEquals(1, reloadCalls.get());
+        assertEquals(0.0, breaker.failureRate(), 0.0);
+    }
+
+    private CircuitBreaker newBreaker() {
+        return CircuitBreaker.builder()
+                .failureRateThreshold(0.5)
+                .slidingWindowSize(10)
+                .minimumCalls(4)
+                .openDuration(1, TimeUnit.SECONDS)
+                .maxOpenDuration(8, TimeUnit.SECONDS)
+                .ticker(nanos::get)
+                .build();
+    }
+
+    private Throwable load(LoadingCache<String, String> cache, String key) {
+        try {
+            cache.get(key);
+            fail();
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private String getValue(String key) {
+        backendCalls.incrementAndGet();
+        if (down.get()) {
+            throw new IllegalStateException("backend down");
+        }
+        return "value_" + key;
+    }
+}
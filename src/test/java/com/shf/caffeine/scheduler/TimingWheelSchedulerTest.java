@@ -0,0 +1,70 @@
+package com.shf.caffeine.scheduler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TimingWheelSchedulerTest {
+    private final HashedTimingWheel wheel = new HashedTimingWheel("test-maintenance", 10, TimeUnit.MILLISECONDS, 64);
+    private final TimingWheelScheduler scheduler = new TimingWheelScheduler(wheel);
+
+    @After
+    public void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    public void idleCacheExpiresWithoutCleanUp() throws InterruptedException {
+        CountDownLatch removed = new CountDownLatch(1);
+        AtomicReference<RemovalCause> cause = new AtomicReference<>();
+        Cache<String, String> cache = Caffeine.newBuilder()
+                .expireAfterWrite(500, TimeUnit.MILLISECONDS)
+                .scheduler(scheduler)
+                .removalListener((String key, String value, RemovalCause removalCause) -> {
+                    cause.set(removalCause);
+                    removed.countDown();
+                })
+                .build();
+        cache.put("key", "value");
+
+        // 写入后不再访问缓存，由调度器触发维护
+        assertTrue(removed.await(5, TimeUnit.SECONDS));
+        assertEquals(RemovalCause.EXPIRED, cause.get());
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    public void futureReflectsHandOffAndCancellation() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        Future<?> fired = scheduler.schedule(Runnable::run, runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        fired.get(2, TimeUnit.SECONDS);
+        assertTrue(fired.isDone());
+        assertFalse(fired.cancel(false));
+        assertEquals(1, runs.get());
+
+        Future<?> cancelled = scheduler.schedule(Runnable::run, runs::incrementAndGet, 1, TimeUnit.HOURS);
+        assertTrue(cancelled.cancel(false));
+        assertTrue(cancelled.isDone());
+        assertTrue(cancelled.isCancelled());
+        try {
+            cancelled.get();
+            fail();
+        } catch (CancellationException expected) {
+            assertEquals(1, runs.get());
+        }
+    }
+}
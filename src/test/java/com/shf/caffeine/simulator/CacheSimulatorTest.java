@@ -0,0 +1,62 @@
+package com.shf.caffeine.simulator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CacheSimulatorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void lirsTraceSkipsNonNumericLines() throws IOException {
+        Path trace = write("1\n2\n1\n*\n3");
+        SimulationResult result = new CacheSimulator(trace, TraceFormat.LIRS).simulate(10);
+        assertEquals(4, result.requestCount());
+        assertEquals(1, result.hitCount());
+        assertEquals(0, result.evictionCount());
+    }
+
+    @Test
+    public void arcTraceExpandsBlockRanges() throws IOException {
+        Path trace = write("10 3 0 1\n11 1 0 2\n");
+        SimulationResult result = new CacheSimulator(trace, TraceFormat.ARC).simulate(10);
+        assertEquals(4, result.requestCount());
+        assertEquals(1, result.hitCount());
+    }
+
+    @Test
+    public void linesSpanningChunksAreParsedOnce() throws IOException {
+        Path trace = write("12345\n67890\n12345\n");
+        List<Long> keys = new ArrayList<>();
+        new MappedTraceReader(trace, TraceFormat.LIRS, 8).forEach(keys::add);
+        assertEquals(Arrays.asList(12345L, 67890L, 12345L), keys);
+    }
+
+    @Test
+    public void hitRatioGrowsWithSize() throws IOException {
+        Path trace = folder.newFile("zipf.trace").toPath();
+        new ZipfTraceGenerator(10_000, 0.9).write(trace, 100_000, 42);
+        List<SimulationResult> results = new CacheSimulator(trace, TraceFormat.ZIPF).sweep(10, 100, 1_000);
+        assertTrue(results.get(0).hitRatio() < results.get(1).hitRatio());
+        assertTrue(results.get(1).hitRatio() < results.get(2).hitRatio());
+        assertTrue(results.get(0).evictionCount() > 0);
+    }
+
+    private Path write(String content) throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, content.getBytes(StandardCharsets.US_ASCII));
+        return path;
+    }
+}
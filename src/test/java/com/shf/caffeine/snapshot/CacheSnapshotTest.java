@@ -0,0 +1,183 @@
+package com.shf.caffeine.snapshot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.shf.caffeine.offheap.Serializer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CacheSnapshotTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void restoresEntriesWithRemainingTtl() throws IOException {
+        AtomicLong time = new AtomicLong();
+        Cache<String, String> source = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfter(fixedExpiry(TimeUnit.MINUTES.toNanos(10)))
+                .ticker(time::get)
+                .executor(Runnable::run)
+                .build();
+        for (int i = 0; i < 10_000; i++) {
+            source.put("key_" + i, "value_" + i);
+        }
+        time.addAndGet(TimeUnit.MINUTES.toNanos(4));
+        source.put("fresh", "value");
+
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        assertEquals(10_001, CacheSnapshot.write(source, file, Serializer.string(), Serializer.string()));
+        assertTrue(Files.size(file) > 10_000 * 20);
+
+        Cache<String, String> target = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfter(fixedExpiry(TimeUnit.MINUTES.toNanos(10)))
+                .executor(Runnable::run)
+                .build();
+        CacheSnapshot.RestoreResult result = CacheSnapshot.restore(target, file, Serializer.string(),
+                Serializer.string(), 4, true);
+
+        assertEquals(10_001, result.restoredCount());
+        assertEquals("value_1234", target.getIfPresent("key_1234"));
+        long remaining = target.policy().expireVariably().get()
+                .getExpiresAfter("key_1234", TimeUnit.MINUTES).getAsLong();
+        assertTrue(remaining >= 5 && remaining <= 6);
+        assertEquals(9, target.policy().expireVariably().get()
+                .getExpiresAfter("fresh", TimeUnit.MINUTES).getAsLong());
+    }
+
+    @Test
+    public void expiredEntriesAreNotWritten() throws IOException {
+        AtomicLong time = new AtomicLong();
+        Cache<String, String> source = Caffeine.newBuilder()
+                .expireAfterWrite(1, TimeUnit.MINUTES)
+                .ticker(time::get)
+                .build();
+        source.put("old", "value");
+        time.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        source.put("new", "value");
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        assertEquals(1, CacheSnapshot.write(source, file, Serializer.string(), Serializer.string()));
+
+        Cache<String, String> target = Caffeine.newBuilder().build();
+        CacheSnapshot.restore(target, file, Serializer.string(), Serializer.string(), 2, false);
+        assertNull(target.getIfPresent("old"));
+        assertEquals("value", target.getIfPresent("new"));
+    }
+
+    @Test
+    public void hottestEntriesAreWrittenFirstWithHigherHeat() throws IOException {
+        Cache<String, String> source = Caffeine.newBuilder()
+                .maximumSize(100)
+                .executor(Runnable::run)
+                .build();
+        for (int i = 0; i < 100; i++) {
+            source.put("key_" + i, "value");
+        }
+        // 达到容量后读取才会使条目晋升至受保护区
+        for (int i = 0; i < 20; i++) {
+            source.getIfPresent("key_7");
+        }
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        CacheSnapshot.write(source, file, Serializer.string(), Serializer.string());
+
+        byte[] bytes = Files.readAllBytes(file);
+        String firstKey = new String(bytes, 20, bytes[19], StandardCharsets.UTF_8);
+        assertEquals("key_7", firstKey);
+        // 首个条目: 16字节头 + 4 + key + 4 + value + 8字节剩余时间，随后1字节heat
+        int heatOffset = 16 + 4 + firstKey.length() + 4 + "value".length() + 8;
+        assertEquals(CacheSnapshot.MAX_HEAT, bytes[heatOffset]);
+    }
+
+    @Test
+    public void restoresEveryBlockInParallel() throws IOException {
+        Cache<String, String> source = Caffeine.newBuilder().build();
+        // 每4096个条目一个块，共5个块
+        int count = 4 * 4096 + 100;
+        for (int i = 0; i < count; i++) {
+            source.put("key_" + i, "value_" + i);
+        }
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        assertEquals(count, CacheSnapshot.write(source, file, Serializer.string(), Serializer.string()));
+
+        Cache<String, String> target = Caffeine.newBuilder().build();
+        CacheSnapshot.RestoreResult result = CacheSnapshot.restore(target, file, Serializer.string(),
+                Serializer.string(), 4, false);
+        assertEquals(count, result.restoredCount());
+        assertEquals(count, target.estimatedSize());
+        for (int i = 0; i < count; i++) {
+            assertEquals("value_" + i, target.getIfPresent("key_" + i));
+        }
+    }
+
+    @Test
+    public void failedWriteLeavesNoTempFile() throws IOException {
+        Cache<String, String> source = Caffeine.newBuilder().build();
+        source.put("key", "value");
+        Serializer<String> failing = new Serializer<String>() {
+            @Override
+            public byte[] serialize(String value) {
+                throw new IllegalStateException("not serializable");
+            }
+
+            @Override
+            public String deserialize(ByteBuffer buffer) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        Path file = folder.getRoot().toPath().resolve("cache.snapshot");
+        try {
+            CacheSnapshot.write(source, file, Serializer.string(), failing);
+            fail();
+        } catch (IllegalStateException expected) {
+            // 预期的序列化失败
+        }
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(file.resolveSibling("cache.snapshot.tmp")));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsForeignFiles() throws IOException {
+        Path file = folder.newFile("not-a-snapshot").toPath();
+        Files.write(file, new byte[64]);
+        CacheSnapshot.restore(Caffeine.newBuilder().build(), file, Serializer.string(), Serializer.string(), 1,
+                false);
+    }
+
+    private static Expiry<String, String> fixedExpiry(long nanos) {
+        return new Expiry<String, String>() {
+            @Override
+            public long expireAfterCreate(String key, String value, long currentTime) {
+                return nanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, String value, long currentTime, long currentDuration) {
+                return nanos;
+            }
+
+            @Override
+            public long expireAfterRead(String key, String value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.shf.caffeine.stats;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LoadLatencyRecorderTest {
+    private static final String MOCK_KEY = "mock_key";
+    private static final String MOCK_VALUE = "mock_value";
+
+    @Test
+    public void percentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.count());
+        assertEquals(500_000, snapshot.p50(), 500_000 * 0.04);
+        assertEquals(990_000, snapshot.p99(), 990_000 * 0.04);
+        assertEquals(999_000, snapshot.p999(), 999_000 * 0.04);
+        assertEquals(1_000_000, snapshot.max());
+    }
+
+    @Test
+    public void bucketIndexRoundTrips() {
+        for (long value : new long[]{0, 1, 63, 64, 127, 128, 1_000, 123_456_789L, Long.MAX_VALUE}) {
+            long estimate = LatencyHistogram.valueOf(LatencyHistogram.indexOf(value));
+            assertEquals(value, estimate, Math.max(1, value * 0.04));
+        }
+    }
+
+    @Test
+    public void recordsInitialAndRefreshSeparately() {
+        LoadLatencyRecorder recorder = new LoadLatencyRecorder("sample");
+        final LoadingCache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .executor(Runnable::run)
+                .build(new InstrumentedCacheLoader<>(key -> MOCK_VALUE, recorder));
+
+        cache.get(MOCK_KEY);
+        cache.refresh(MOCK_KEY);
+
+        assertEquals(1, recorder.snapshot(LoadCause.INITIAL).count());
+        assertEquals(1, recorder.snapshot(LoadCause.REFRESH).count());
+    }
+
+    @Test
+    public void wrapsMappingFunction() {
+        LoadLatencyRecorder recorder = new LoadLatencyRecorder("sample");
+        final Cache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .build();
+
+        cache.get(MOCK_KEY, recorder.wrap(key -> MOCK_VALUE));
+        cache.get(MOCK_KEY, recorder.wrap(key -> MOCK_VALUE));
+
+        assertEquals(1, recorder.snapshot(LoadCause.INITIAL).count());
+        assertTrue(recorder.toString().startsWith("sample"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.shf.caffeine.stats;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class StripedStatsCounterTest {
+    private static final String MOCK_KEY = "mock_key";
+    private static final String MOCK_VALUE = "mock_value";
+
+    @Test
+    public void exactCountsWithoutSampling() {
+        final Cache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats(StripedStatsCounter.supplier(1))
+                .build();
+
+        assertEquals(null, cache.getIfPresent(MOCK_KEY));
+        cache.get(MOCK_KEY, key -> MOCK_VALUE);
+        cache.get(MOCK_KEY, key -> MOCK_VALUE);
+        cache.getIfPresent(MOCK_KEY);
+
+        assertEquals(2, cache.stats().hitCount());
+        assertEquals(2, cache.stats().missCount());
+        assertEquals(1, cache.stats().loadSuccessCount());
+    }
+
+    @Test
+    public void sampledHitsApproximateExactCount() {
+        final Cache<String, String> cache = Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats(StripedStatsCounter.supplier(16))
+                .build();
+        cache.put(MOCK_KEY, MOCK_VALUE);
+
+        int reads = 200_000;
+        for (int i = 0; i < reads; i++) {
+            cache.getIfPresent(MOCK_KEY);
+        }
+        cache.getIfPresent("absent");
+
+        assertEquals(reads, cache.stats().hitCount(), reads * 0.05);
+        assertEquals(1, cache.stats().missCount());
+    }
+}
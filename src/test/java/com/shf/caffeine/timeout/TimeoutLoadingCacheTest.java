@@ -0,0 +1,56 @@
+package com.shf.caffeine.timeout;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeoutLoadingCacheTest {
+    private static final String MOCK_KEY = "mock_key";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicLong latencyMillis = new AtomicLong();
+    private final AtomicInteger version = new AtomicInteger();
+
+    @Test
+    public void slowLoadReturnsDefaultThenFillsCache() throws InterruptedException {
+        TimeoutLoadingCache<String, String> cache = newCache();
+        latencyMillis.set(300);
+
+        long start = System.nanoTime();
+        assertEquals("default", cache.get(MOCK_KEY));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(250));
+        assertEquals(1, cache.timeoutCount());
+        assertEquals(1, cache.defaultFallbackCount());
+
+        Thread.sleep(400);
+        assertEquals("v1", cache.get(MOCK_KEY));
+    }
+
+    @Test
+    public void slowReloadAfterExpiryReturnsLastKnownValue() {
+        TimeoutLoadingCache<String, String> cache = newCache();
+        assertEquals("v1", cache.get(MOCK_KEY));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        latencyMillis.set(300);
+        assertEquals("v1", cache.get(MOCK_KEY));
+        assertEquals(1, cache.lastKnownFallbackCount());
+    }
+
+    private TimeoutLoadingCache<String, String> newCache() {
+        return new TimeoutLoadingCache<>(Caffeine.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(5, TimeUnit.SECONDS)
+                .ticker(nanos::get)
+                .recordStats(), key -> {
+                    Thread.sleep(latencyMillis.get());
+                    return "v" + version.incrementAndGet();
+                }, 50, TimeUnit.MILLISECONDS, 100, key -> "default");
+    }
+}
@@ -0,0 +1,101 @@
+package com.shf.caffeine.weigher;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shf.caffeine.offheap.Serializer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WeighersTest {
+
+    @Test
+    public void parsesMemoryBudgets() {
+        assertEquals(512L << 20, MemoryBudget.parse("512MB").bytes());
+        assertEquals(3L << 29, MemoryBudget.parse("1.5 gb").bytes());
+        assertEquals(64L << 10, MemoryBudget.parse("64KB").bytes());
+        assertEquals(4096, MemoryBudget.parse("4096").bytes());
+        assertEquals(100, MemoryBudget.parse("100B").bytes());
+        assertEquals(Runtime.getRuntime().maxMemory() / 4, MemoryBudget.parse("25%").bytes(), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidBudget() {
+        MemoryBudget.parse("lots");
+    }
+
+    @Test
+    public void estimatesStringsAndCollections() {
+        ObjectGraphSizer sizer = new ObjectGraphSizer(Integer.MAX_VALUE, false);
+        long small = sizer.sizeOf("a");
+        long large = sizer.sizeOf(repeat('a', 10_000));
+        assertTrue(large - small >= 9_990);
+
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(repeat('x', 100));
+        }
+        long listSize = sizer.sizeOf(list);
+        // 每个元素至少包含100字节字符与对象头
+        assertTrue(listSize > 1000 * 100 && listSize < 1000 * 200);
+
+        Map<String, String> map = new HashMap<>();
+        map.put("k", repeat('v', 1000));
+        assertTrue(sizer.sizeOf(map) > 1000);
+    }
+
+    @Test
+    public void sampledGraphSizeTracksExactSize() {
+        Payload payload = new Payload();
+        Random random = new Random(42);
+        for (int i = 0; i < payload.items.length; i++) {
+            payload.items[i] = repeat('a', random.nextInt(50));
+        }
+        long exact = new ObjectGraphSizer(Integer.MAX_VALUE, true).sizeOf(payload);
+        long sampled = new ObjectGraphSizer(100, true).sizeOf(payload);
+
+        assertTrue(exact > 10_000 * 40);
+        assertEquals(1.0, (double) sampled / exact, 0.1);
+        // 不遍历字段时只计入外层对象
+        assertEquals(24, new ObjectGraphSizer(100, false).sizeOf(payload));
+    }
+
+    @Test
+    public void memoryBudgetBoundsWeightedSize() {
+        Cache<Integer, String> cache = MemoryBudget.parse("64KB")
+                .applyTo(Caffeine.newBuilder().executor(Runnable::run), Weighers.<Integer, String>estimatedDeepSize())
+                .build();
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, repeat('v', 1000));
+        }
+        cache.cleanUp();
+
+        long weightedSize = cache.policy().eviction().get().weightedSize().getAsLong();
+        assertTrue(weightedSize <= 64 << 10);
+        assertTrue(cache.estimatedSize() < 64);
+    }
+
+    @Test
+    public void serializedSizeUsesEncodedLength() {
+        assertEquals(6, Weighers.<String, String>serializedSize(Serializer.string()).weigh("k", "ééé"));
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static final class Payload {
+        final String[] items = new String[10_000];
+        long id;
+    }
+}
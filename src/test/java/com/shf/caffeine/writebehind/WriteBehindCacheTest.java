@@ -0,0 +1,238 @@
+package com.shf.caffeine.writebehind;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shf.caffeine.offheap.Serializer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WriteBehindCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void coalescesWritesPerKeyAndFlushesInBatches() throws InterruptedException {
+        RecordingWriter writer = new RecordingWriter();
+        WriteBehindCache<String, String> cache = WriteBehindCache.builder(
+                        Caffeine.newBuilder().<String, String>build(), writer)
+                .batchSize(1000)
+                .flushInterval(1, TimeUnit.HOURS)
+                .build();
+        for (int i = 0; i < 100; i++) {
+            cache.put("key_" + (i % 10), "value_" + i);
+        }
+        cache.invalidate("key_0");
+
+        assertEquals("value_99", cache.getIfPresent("key_9"));
+        assertNull(cache.getIfPresent("key_0"));
+        assertEquals(0, writer.writeCount.get());
+
+        assertTrue(cache.flush(5, TimeUnit.SECONDS));
+        assertEquals(9, writer.store.size());
+        assertEquals("value_99", writer.store.get("key_9"));
+        assertEquals(91, cache.coalescedCount());
+        assertEquals(1, cache.batchCount());
+        cache.close();
+    }
+
+    @Test
+    public void failedBatchesAreRetriedWithLatestValues() throws InterruptedException {
+        RecordingWriter writer = new RecordingWriter();
+        writer.failing.set(true);
+        WriteBehindCache<String, String> cache = WriteBehindCache.builder(
+                        Caffeine.newBuilder().<String, String>build(), writer)
+                .flushInterval(10, TimeUnit.MILLISECONDS)
+                .retryBackoff(10, 20, TimeUnit.MILLISECONDS)
+                .build();
+        cache.put("k", "v1");
+        assertFalse(cache.flush(200, TimeUnit.MILLISECONDS));
+        assertTrue(cache.failureCount() > 1);
+
+        cache.put("k", "v2");
+        writer.failing.set(false);
+        assertTrue(cache.flush(5, TimeUnit.SECONDS));
+        assertEquals("v2", writer.store.get("k"));
+        cache.close();
+    }
+
+    @Test
+    public void fullQueueRejectsNewKeysAfterBlocking() throws InterruptedException {
+        RecordingWriter writer = new RecordingWriter();
+        writer.failing.set(true);
+        WriteBehindCache<String, String> cache = WriteBehindCache.builder(
+                        Caffeine.newBuilder().<String, String>build(), writer)
+                .maxPending(2, 50, TimeUnit.MILLISECONDS)
+                .retryBackoff(1, 1, TimeUnit.SECONDS)
+                .build();
+        cache.put("a", "1");
+        cache.put("b", "1");
+        // 已在队列中的key可以合并写入
+        cache.put("a", "2");
+        try {
+            cache.put("c", "1");
+            fail();
+        } catch (WriteQueueFullException expected) {
+            assertNull(cache.getIfPresent("c"));
+        }
+        writer.failing.set(false);
+        cache.close();
+    }
+
+    @Test
+    public void unflushedWritesAreRecoveredFromJournal() throws Exception {
+        Path journal = folder.getRoot().toPath().resolve("cache.journal");
+        RecordingWriter down = new RecordingWriter();
+        down.failing.set(true);
+        WriteBehindCache<String, String> first = WriteBehindCache.builder(
+                        Caffeine.newBuilder().<String, String>build(), down)
+                .journal(journal, Serializer.string(), Serializer.string())
+                .retryBackoff(1, 1, TimeUnit.HOURS)
+                .build();
+        first.put("a", "1");
+        first.put("b", "1");
+        first.put("a", "2");
+        first.invalidate("b");
+        first.put("c", "3");
+        // 目标存储不可用时关闭，未写回的操作保留在日志中
+        first.close();
+
+        RecordingWriter writer = new RecordingWriter();
+        writer.store.put("b", "stale");
+        WriteBehindCache<String, String> second = WriteBehindCache.builder(
+                        Caffeine.newBuilder().<String, String>build(), writer)
+                .journal(journal, Serializer.string(), Serializer.string())
+                .compactThreshold(0)
+                .build();
+        assertEquals("2", second.getIfPresent("a"));
+        assertEquals(3, second.pendingCount());
+        assertTrue(second.flush(5, TimeUnit.SECONDS));
+        assertEquals("2", writer.store.get("a"));
+        assertNull(writer.store.get("b"));
+        assertEquals("3", writer.store.get("c"));
+        second.close();
+
+        // 全部写回后压缩为空日志，再次启动没有待写操作
+        assertEquals(0, Files.size(journal));
+        WriteBehindCache<String, String> third = WriteBehindCache.builder(
+                        Caffeine.newBuilder().<String, String>build(), writer)
+                .journal(journal, Serializer.string(), Serializer.string())
+                .build();
+        assertEquals(0, third.pendingCount());
+        third.close();
+    }
+
+    @Test
+    public void readsSeePendingWritesOfEvictedKeys() throws InterruptedException {
+        RecordingWriter writer = new RecordingWriter();
+        writer.store.put("a", "stored_a");
+        writer.store.put("b", "stored_b");
+        WriteBehindCache<String, String> cache = WriteBehindCache.builder(
+                        Caffeine.newBuilder().maximumSize(1).executor(Runnable::run).<String, String>build(), writer)
+                .batchSize(1000)
+                .flushInterval(1, TimeUnit.HOURS)
+                .build();
+        cache.put("a", "pending_a");
+        cache.invalidate("b");
+        // 写入c使a被淘汰，a的新值仍在待写队列中
+        cache.put("c", "pending_c");
+        cache.delegate().cleanUp();
+        assertNull(cache.delegate().getIfPresent("a"));
+
+        assertEquals("pending_a", cache.getIfPresent("a"));
+        assertEquals("pending_a", cache.get("a", writer.store::get));
+        // 未写回的删除不会从目标存储重新加载旧值
+        assertNull(cache.getIfPresent("b"));
+        assertNull(cache.get("b", writer.store::get));
+        assertNull(cache.delegate().getIfPresent("b"));
+
+        assertTrue(cache.flush(5, TimeUnit.SECONDS));
+        assertEquals("pending_a", writer.store.get("a"));
+        assertNull(writer.store.get("b"));
+        cache.close();
+    }
+
+    @Test
+    public void slowLoadOnlyBlocksWritesToItsOwnKey() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        WriteBehindCache<String, String> cache = WriteBehindCache.builder(
+                        Caffeine.newBuilder().<String, String>build(), writer)
+                .flushInterval(10, TimeUnit.MILLISECONDS)
+                .build();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get("a", key -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "stored_a";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // 对a的写入须等待其加载完成，但不能因此阻塞其他key的写入、删除与读取
+        CompletableFuture<Void> writeA = CompletableFuture.runAsync(() -> cache.put("a", "value_a"));
+        Thread.sleep(50);
+        CompletableFuture<Void> writes = CompletableFuture.runAsync(() -> {
+            cache.put("b", "value_b");
+            cache.invalidate("c");
+            cache.getIfPresent("d");
+        });
+        writes.get(5, TimeUnit.SECONDS);
+        assertTrue(cache.flush(5, TimeUnit.SECONDS));
+        assertEquals("value_b", writer.store.get("b"));
+
+        assertFalse(writeA.isDone());
+
+        release.countDown();
+        // 加载完成后a的写入随即生效，加载方可能已以新写入为准
+        String loaded = load.get(5, TimeUnit.SECONDS);
+        assertTrue(loaded, "stored_a".equals(loaded) || "value_a".equals(loaded));
+        writeA.get(5, TimeUnit.SECONDS);
+        assertEquals("value_a", cache.getIfPresent("a"));
+        cache.close();
+    }
+
+    private static final class RecordingWriter implements CacheWriter<String, String> {
+        final Map<String, String> store = new ConcurrentHashMap<>();
+        final AtomicBoolean failing = new AtomicBoolean();
+        final AtomicInteger writeCount = new AtomicInteger();
+
+        @Override
+        public void writeAll(Map<String, String> entries) {
+            check();
+            writeCount.incrementAndGet();
+            store.putAll(entries);
+        }
+
+        @Override
+        public void deleteAll(Set<String> keys) {
+            check();
+            store.keySet().removeAll(keys);
+        }
+
+        private void check() {
+            if (failing.get()) {
+                throw new IllegalStateException("database unavailable");
+            }
+        }
+    }
+}